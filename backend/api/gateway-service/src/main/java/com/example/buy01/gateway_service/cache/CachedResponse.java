@@ -0,0 +1,139 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+// Réponse amont conservée par la gateway : statut, en-têtes utiles au client et corps complet
+public class CachedResponse {
+
+    // En-têtes amont rejoués ; les en-têtes CORS sont posés par la gateway elle-même
+    static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CONTENT_LANGUAGE);
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long storedAtNanos;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final long staleIfErrorNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    // Variante gzip calculée une seule fois ; NOT_COMPRESSED si la réponse ne se compresse pas
+    private static final byte[] NOT_COMPRESSED = new byte[0];
+    private volatile byte[] gzipBody;
+
+    public CachedResponse(int status, HttpHeaders upstreamHeaders, byte[] body, long ttlNanos, long staleNanos,
+            long staleIfErrorNanos) {
+        this.status = status;
+        this.headers = new HttpHeaders();
+        for (String name : REPLAYED_HEADERS) {
+            List<String> values = upstreamHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        this.body = body;
+        this.storedAtNanos = System.nanoTime();
+        this.ttlNanos = ttlNanos;
+        this.staleNanos = staleNanos;
+        this.staleIfErrorNanos = staleIfErrorNanos;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isFresh() {
+        return System.nanoTime() - storedAtNanos < ttlNanos;
+    }
+
+    // Servie aux clients : fraîche, ou périmée dans la fenêtre stale-while-revalidate
+    public boolean isServable() {
+        return System.nanoTime() - storedAtNanos < ttlNanos + staleNanos;
+    }
+
+    // Durée de vie totale dans le cache : TTL + stale-while-revalidate + stale-if-error.
+    // Au-delà de isServable(), l'entrée ne sert plus qu'aux fallbacks quand le service est en panne
+    public long lifetimeNanos() {
+        return ttlNanos + staleNanos + staleIfErrorNanos;
+    }
+
+    // true pour le seul appelant qui doit lancer le rafraîchissement
+    public boolean startRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    public void refreshFailed() {
+        refreshing.set(false);
+    }
+
+    // Variante gzip du corps (null si la réponse ne se compresse pas), calculée au premier appel
+    public byte[] gzipBody(ResponseCompressor compressor) {
+        byte[] variant = gzipBody;
+        if (variant == null) {
+            synchronized (this) {
+                variant = gzipBody;
+                if (variant == null) {
+                    variant = compressor.isCompressible(headers.getContentType(), body.length)
+                            ? compressor.gzip(body)
+                            : NOT_COMPRESSED;
+                    gzipBody = variant;
+                }
+            }
+        }
+        return variant == NOT_COMPRESSED ? null : variant;
+    }
+
+    // Écrit la réponse conservée (X-Cache indique sa provenance) ; 304 si le client a déjà cet ETag,
+    // variante gzip si le client l'accepte
+    public Mono<Void> writeTo(ServerWebExchange exchange, String cacheStatus, ResponseCompressor compressor) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(headers);
+        response.getHeaders().set("X-Cache", cacheStatus);
+
+        String etag = headers.getETag();
+        if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        byte[] payload = body;
+        byte[] gzip = gzipBody(compressor);
+        if (gzip != null) {
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (ResponseCompressor.acceptsGzip(exchange.getRequest().getHeaders())) {
+                response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                payload = gzip;
+            }
+        }
+
+        response.setRawStatusCode(status);
+        response.getHeaders().setContentLength(payload.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(payload)));
+    }
+
+    // Poids approximatif en mémoire, pour la borne du cache
+    public int weight() {
+        byte[] variant = gzipBody;
+        return body.length + (variant != null ? variant.length : 0) + 256;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Recopie le corps d'une réponse amont partageable (200, taille bornée, non encodée, rien de propre
+// à un client) avant de l'écrire au client. Exactement un des deux rappels est appelé par réponse :
+// onCaptured avec le corps complet, ou onSkipped si la réponse n'est pas partageable
+class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final long maxBytes;
+    private final Consumer<CachedResponse> onCaptured;
+    private final Runnable onSkipped;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    CapturingResponseDecorator(ServerHttpResponse delegate, long maxBytes, Consumer<CachedResponse> onCaptured,
+            Runnable onSkipped) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+        this.onCaptured = onCaptured;
+        this.onSkipped = onSkipped;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!isShareable()) {
+            skip();
+            return super.writeWith(body);
+        }
+        return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+            if (bytes.length <= maxBytes && done.compareAndSet(false, true)) {
+                onCaptured.accept(new CachedResponse(HttpStatus.OK.value(), getHeaders(), bytes, 0, 0, 0));
+            } else {
+                skip();
+            }
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        });
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        // Réponse diffusée au fil de l'eau (SSE, NDJSON) : jamais partagée
+        skip();
+        return super.writeAndFlushWith(body);
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        skip();
+        return super.setComplete();
+    }
+
+    void skip() {
+        if (done.compareAndSet(false, true)) {
+            onSkipped.run();
+        }
+    }
+
+    private boolean isShareable() {
+        HttpHeaders headers = getHeaders();
+        String cacheControl = headers.getCacheControl();
+        // Réponse rejouée depuis un cache (fallback) : elle n'a rien de neuf à conserver
+        String replayed = headers.getFirst("X-Cache");
+        return (replayed == null || replayed.equals("MISS"))
+                && getStatusCode() != null
+                && getStatusCode().value() == HttpStatus.OK.value()
+                && headers.getContentLength() <= maxBytes
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+// Images produits et avatars servis directement par la gateway depuis un cache disque local.
+// Un fichier absent est relayé au service (media-service / user-service) et recopié sur disque
+// au passage ; les requêtes suivantes sont servies sans appel amont, en zero-copy
+// (ZeroCopyHttpOutputMessage : sendfile / FileRegion Netty) quand la réponse le permet.
+// Chaque copie a son propre nom de fichier sur disque, supprimé à l'éviction de l'entrée
+@Component
+public class EdgeFileCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(EdgeFileCacheFilter.class);
+
+    private static final String FILE_PREFIX = "edge-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    // Les noms de fichiers amont sont des UUID : le contenu d'une URL ne change jamais
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    // Copie locale d'un fichier amont, avec sa variante gzip pour les types compressibles (SVG, JSON)
+    private static final class CachedFile {
+        private final Path path;
+        private final long size;
+        private final MediaType contentType;
+        private final Path gzipPath;
+        private final long gzipSize;
+
+        private CachedFile(Path path, long size, MediaType contentType, Path gzipPath, long gzipSize) {
+            this.path = path;
+            this.size = size;
+            this.contentType = contentType;
+            this.gzipPath = gzipPath;
+            this.gzipSize = gzipSize;
+        }
+
+        private CachedFile withGzip(Path gzipPath, long gzipSize) {
+            return new CachedFile(path, size, contentType, gzipPath, gzipSize);
+        }
+    }
+
+    private final EdgeFileCacheProperties properties;
+    private final ResponseCompressor compressor;
+    private final Path directory;
+    private final List<PathPattern> paths;
+    private final Cache<String, CachedFile> files;
+    private final Counter hits;
+    private final Counter misses;
+
+    public EdgeFileCacheFilter(EdgeFileCacheProperties properties, ResponseCompressor compressor,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.compressor = compressor;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+        this.paths = properties.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        this.files = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .<String, CachedFile>weigher((key, file) -> (int) Math.min(Integer.MAX_VALUE, file.size + file.gzipSize))
+                .expireAfterWrite(properties.getTtl())
+                .removalListener((String key, CachedFile file, RemovalCause cause) -> {
+                    // REPLACED : même fichier, seule la variante gzip a été ajoutée
+                    if (file != null && cause != RemovalCause.REPLACED) {
+                        deleteQuietly(file.path);
+                        if (file.gzipPath != null) {
+                            deleteQuietly(file.gzipPath);
+                        }
+                    }
+                })
+                .build();
+        if (properties.isEnabled()) {
+            prepareDirectory();
+        }
+
+        this.hits = Counter.builder("gateway.edgefiles.requests")
+                .description("Fichiers statiques demandés à la gateway")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gateway.edgefiles.requests")
+                .description("Fichiers statiques demandés à la gateway")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("gateway.edgefiles.bytes", files,
+                cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Taille des fichiers du cache disque")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || !isServable(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = request.getPath().pathWithinApplication().value();
+        CachedFile cached = files.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return serve(exchange, cached);
+        }
+
+        misses.increment();
+        exchange.getResponse().getHeaders().set("X-Cache", "MISS");
+        return chain.filter(exchange.mutate().response(new TeeToDisk(exchange.getResponse(), key)).build());
+    }
+
+    // GET sans Range sur un chemin configuré ; les requêtes partielles restent servies par le service
+    private boolean isServable(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return false;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedFile file) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(file.contentType);
+        headers.setCacheControl(IMMUTABLE);
+        headers.set("X-Cache", "HIT");
+
+        Path path = file.path;
+        long size = file.size;
+        if (file.gzipPath != null) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (ResponseCompressor.acceptsGzip(exchange.getRequest().getHeaders())) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                path = file.gzipPath;
+                size = file.gzipSize;
+            }
+        }
+        headers.setContentLength(size);
+
+        if (response instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            return zeroCopy.writeWith(path, 0, size);
+        }
+        return response.writeWith(DataBufferUtils.read(path, response.bufferFactory(), READ_BUFFER_SIZE));
+    }
+
+    // Variante gzip écrite à côté du fichier, hors de la boucle d'événements, une fois par copie.
+    // Gardée seulement si elle est plus petite et que l'entrée n'a pas changé entre-temps
+    private void precompress(String key, CachedFile file) {
+        Path gzipPath = Paths.get(file.path + ".gz");
+        try {
+            compressor.gzip(file.path, gzipPath);
+            long gzipSize = Files.size(gzipPath);
+            if (gzipSize >= file.size || !files.asMap().replace(key, file, file.withGzip(gzipPath, gzipSize))) {
+                deleteQuietly(gzipPath);
+            }
+        } catch (IOException e) {
+            logger.debug("Compression de {} impossible : {}", key, e.getMessage());
+            deleteQuietly(gzipPath);
+        }
+    }
+
+    // Réponse amont écrite au client et, en parallèle, dans un nouveau fichier du cache.
+    // Le fichier n'est indexé qu'une fois complet et de la taille annoncée
+    private final class TeeToDisk extends ServerHttpResponseDecorator {
+
+        private final String key;
+
+        private TeeToDisk(ServerHttpResponse delegate, String key) {
+            super(delegate);
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            long length = headers.getContentLength();
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()
+                    || length < 0 || length > properties.getMaxFileSize().toBytes()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return super.writeWith(body);
+            }
+            MediaType contentType = Optional.ofNullable(headers.getContentType())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+            return Mono.fromCallable(() -> Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .map(Optional::of)
+                    .onErrorResume(IOException.class, e -> {
+                        logger.warn("Cache disque indisponible ({}) : {}", directory, e.getMessage());
+                        return Mono.just(Optional.empty());
+                    })
+                    .flatMap(target -> target.isPresent()
+                            ? super.writeWith(tee(body, target.get(), length, contentType))
+                            : super.writeWith(body));
+        }
+
+        private Flux<DataBuffer> tee(Publisher<? extends DataBuffer> body, Path path, long length,
+                MediaType contentType) {
+            return Flux.using(
+                    () -> AsynchronousFileChannel.open(path, StandardOpenOption.WRITE),
+                    channel -> DataBufferUtils.write(Flux.from(body).map(DataBuffer.class::cast), channel)
+                            .doFinally(signal -> {
+                                CachedFile file = new CachedFile(path, length, contentType, null, 0);
+                                // Copie concurrente déjà indexée : la nôtre n'a jamais été servie
+                                if (signal != SignalType.ON_COMPLETE || sizeOf(path) != length
+                                        || files.asMap().putIfAbsent(key, file) != null) {
+                                    deleteQuietly(path);
+                                } else if (compressor.isCompressible(contentType, length)) {
+                                    Mono.fromRunnable(() -> precompress(key, file))
+                                            .subscribeOn(Schedulers.boundedElastic())
+                                            .subscribe();
+                                }
+                            }),
+                    EdgeFileCacheFilter::closeQuietly);
+        }
+    }
+
+    // Les copies d'une exécution précédente ne sont pas indexées : on repart d'un cache vide
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+                leftovers.forEach(EdgeFileCacheFilter::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Répertoire du cache disque inutilisable : " + directory, e);
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void closeQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Fermeture de fichier impossible : {}", e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Suppression de {} impossible : {}", path, e.getMessage());
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return -3; // Avant le cache de réponses et JwtAuthFilter : un fichier en cache ne va pas plus loin
+    }
+}
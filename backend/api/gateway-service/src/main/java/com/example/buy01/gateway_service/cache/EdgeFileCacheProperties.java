@@ -0,0 +1,79 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// Cache disque des fichiers statiques servis par la gateway (gateway.edge-files dans application.yaml)
+@Component
+@ConfigurationProperties(prefix = "gateway.edge-files")
+public class EdgeFileCacheProperties {
+
+    private boolean enabled = true;
+
+    private String directory = System.getProperty("java.io.tmpdir") + "/gateway-edge-files";
+
+    // Chemins servis depuis le disque ; les fichiers y sont nommés par UUID et ne changent jamais
+    private List<String> paths = new ArrayList<>();
+
+    // Taille totale des fichiers sur disque, les moins récemment servis sont supprimés au-delà
+    private DataSize maxSize = DataSize.ofGigabytes(2);
+
+    // Un fichier plus grand est relayé sans être copié sur disque
+    private DataSize maxFileSize = DataSize.ofMegabytes(20);
+
+    // Durée de conservation : borne le temps pendant lequel un fichier supprimé en amont reste servi
+    private Duration ttl = Duration.ofDays(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.buy01.gateway_service.security.JwtAuthFilter;
+import com.example.buy01.gateway_service.security.JwtVerifier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+// Fusion des GET identiques en cours (single-flight) : la première requête part vers le service,
+// les suivantes avec la même clé (route, chemin, requête, classe d'authentification) attendent
+// sa réponse et la reçoivent telle quelle. Placé après JwtAuthFilter : une requête refusée
+// n'attend jamais la réponse d'une autre. Une réponse non partageable (erreur, trop grande,
+// Set-Cookie) libère les requêtes en attente, qui interrogent alors le service elles-mêmes
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private final RequestCoalescingProperties properties;
+    private final JwtVerifier jwtVerifier;
+    private final List<PathPattern> paths;
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter joined;
+    private final ResponseCompressor compressor;
+
+    public RequestCoalescingFilter(RequestCoalescingProperties properties, JwtVerifier jwtVerifier,
+            MeterRegistry meterRegistry, ResponseCompressor compressor) {
+        this.properties = properties;
+        this.compressor = compressor;
+        this.jwtVerifier = jwtVerifier;
+        this.paths = properties.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        this.joined = Counter.builder("gateway.coalescing.joined")
+                .description("Requêtes servies par un appel amont déjà en cours")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.inflight", inFlight, Map::size)
+                .description("Appels amont partagés en cours")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || !isCoalescable(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = coalescingKey(exchange);
+        Sinks.One<CachedResponse> leader = Sinks.one();
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            joined.increment();
+            return existing.asMono()
+                    .timeout(properties.getMaxWait(), Mono.empty())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> shared.isPresent()
+                            ? shared.get().writeTo(exchange, "COALESCED", compressor)
+                            : chain.filter(exchange));
+        }
+
+        // La clé est libérée dès que la réponse est connue : une requête arrivant ensuite
+        // repart vers le service au lieu de recevoir une réponse déjà écrite
+        CapturingResponseDecorator capturing = new CapturingResponseDecorator(exchange.getResponse(),
+                properties.getMaxResponseSize().toBytes(),
+                captured -> {
+                    inFlight.remove(key, leader);
+                    leader.tryEmitValue(captured);
+                },
+                () -> {
+                    inFlight.remove(key, leader);
+                    leader.tryEmitEmpty();
+                });
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> capturing.skip());
+    }
+
+    // GET sans Range : les requêtes partielles ne peuvent pas partager une réponse complète
+    private boolean isCoalescable(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return false;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    // Les en-têtes de négociation font aussi partie de la clé : deux clients qui n'acceptent pas
+    // le même format ou le même encodage ne reçoivent pas la même réponse
+    private String coalescingKey(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String query = request.getURI().getRawQuery();
+        HttpHeaders headers = request.getHeaders();
+        return (route != null ? route.getId() : "")
+                + " " + request.getPath().pathWithinApplication().value() + (query != null ? "?" + query : "")
+                + " " + authClass(exchange)
+                + " " + headers.getFirst(HttpHeaders.ACCEPT)
+                + " " + headers.getFirst(HttpHeaders.ACCEPT_ENCODING)
+                + " " + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    // Route protégée : la réponse dépend de l'utilisateur, on ne fusionne que ses propres requêtes.
+    // Route publique : les réponses ne varient qu'avec le rôle éventuellement présenté
+    private String authClass(ServerWebExchange exchange) {
+        String principal = exchange.getAttribute(JwtAuthFilter.PRINCIPAL_ATTRIBUTE);
+        if (principal != null) {
+            return "user:" + principal;
+        }
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return "anonymous";
+        }
+        JwtVerifier.VerifiedToken verified = jwtVerifier.verify(authHeader.substring(7));
+        return verified != null ? "role:" + verified.getRole() : "invalid";
+    }
+
+    @Override
+    public int getOrder() {
+        return 0; // Après JwtAuthFilter (-1) et le cache de réponses (-2)
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// Fusion des GET identiques en cours (gateway.coalescing dans application.yaml)
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class RequestCoalescingProperties {
+
+    private boolean enabled = true;
+
+    // Chemins concernés ; les autres GET passent directement
+    private List<String> paths = new ArrayList<>();
+
+    // Au-delà, une requête en attente n'attend plus l'appel partagé et interroge le service elle-même
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    // Une réponse plus grande n'est pas partagée : chaque requête en attente refait l'appel
+    private DataSize maxResponseSize = DataSize.ofMegabytes(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public DataSize getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(DataSize maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+}
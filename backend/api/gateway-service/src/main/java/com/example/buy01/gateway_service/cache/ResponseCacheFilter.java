@@ -0,0 +1,265 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.buy01.gateway_service.security.PublicRouteMatcher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import reactor.core.publisher.Mono;
+
+// Cache des réponses aux GET publics (catalogue, détail produit), placé avant JwtAuthFilter.
+// TTL par règle de chemin, borne mémoire en octets, stale-while-revalidate : une entrée périmée
+// reste servie pendant qu'une seule requête de fond la rafraîchit auprès du service.
+// Les écritures réussies sur invalidate-paths retirent le détail du produit concerné et les listes
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    // Clé de cache de la requête, gardée sur l'échange pour le fallback (le forward change le chemin)
+    public static final String CACHE_KEY_ATTRIBUTE = "gateway.response-cache.key";
+
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-fA-F]{24}");
+
+    // Seules ces méthodes modifient des données ; HEAD, OPTIONS ne touchent pas au cache
+    private static final Set<HttpMethod> WRITE_METHODS =
+            Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    // Produit visé par une écriture, renvoyé par les services quand le chemin ne le contient pas
+    // (media-service : /api/media/delete/{mediaId} porte l'ID du média, pas celui du produit)
+    static final String PRODUCT_ID_HEADER = "X-Product-Id";
+
+    private static final class CompiledRule {
+        private final List<PathPattern> paths;
+        private final ResponseCacheProperties.Rule rule;
+
+        private CompiledRule(ResponseCacheProperties.Rule rule) {
+            this.rule = rule;
+            this.paths = rule.getPaths().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .collect(Collectors.toList());
+        }
+
+        private boolean matches(PathContainer path) {
+            return paths.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+
+    private final ResponseCacheProperties properties;
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final List<CompiledRule> rules;
+    private final List<PathPattern> invalidatePaths;
+    private final Cache<String, CachedResponse> cache;
+    private final WebClient webClient;
+    private final ResponseCompressor compressor;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, PublicRouteMatcher publicRouteMatcher,
+            WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+            ResponseCompressor compressor) {
+        this.properties = properties;
+        this.compressor = compressor;
+        this.publicRouteMatcher = publicRouteMatcher;
+        this.rules = properties.getRules().stream().map(CompiledRule::new).collect(Collectors.toList());
+        this.invalidatePaths = properties.getInvalidatePaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .<String, CachedResponse>weigher((key, response) -> response.weight() + key.length())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.lifetimeNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                            long currentDuration) {
+                        return response.lifetimeNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        // Rafraîchissements de fond : lb://service résolu par le load balancer, comme les routes
+        this.webClient = webClientBuilder.filter(loadBalancer).build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            return invalidateAfterWrite(exchange, chain);
+        }
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String path = request.getPath().pathWithinApplication().value();
+        CompiledRule rule = ruleFor(request);
+        if (rule == null || !publicRouteMatcher.isPublic(path)) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        exchange.getAttributes().put(CACHE_KEY_ATTRIBUTE, key);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.isServable()) {
+            if (!cached.isFresh() && cached.startRefresh()) {
+                refresh(exchange, key, rule);
+            }
+            return cached.writeTo(exchange, cached.isFresh() ? "HIT" : "STALE", compressor);
+        }
+
+        exchange.getResponse().getHeaders().set("X-Cache", "MISS");
+        CapturingResponseDecorator capturing = new CapturingResponseDecorator(exchange.getResponse(),
+                properties.getMaxEntrySize().toBytes(),
+                captured -> store(key, rule, captured.getStatus(), captured.getHeaders(), captured.getBody()),
+                () -> { });
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    // Entrée conservée pour la requête, même au-delà de stale-while-revalidate ; null sinon.
+    // Utilisée par le fallback des circuit breakers quand le service ne répond plus
+    public CachedResponse fallbackFor(ServerWebExchange exchange) {
+        String key = exchange.getAttribute(CACHE_KEY_ATTRIBUTE);
+        return key != null ? cache.getIfPresent(key) : null;
+    }
+
+    private CompiledRule ruleFor(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (CompiledRule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return request.getPath().pathWithinApplication().value() + (query != null ? "?" + query : "");
+    }
+
+    // La variante gzip est calculée avant l'insertion : une fois par remplissage, et comptée dans le poids
+    private void store(String key, CompiledRule rule, int status, HttpHeaders headers, byte[] body) {
+        CachedResponse response = new CachedResponse(status, headers, body,
+                rule.rule.getTtl().toNanos(), rule.rule.getStaleWhileRevalidate().toNanos(),
+                properties.getStaleIfError().toNanos());
+        response.gzipBody(compressor);
+        cache.put(key, response);
+    }
+
+    // Rafraîchit une entrée périmée en arrière-plan ; la requête courante reçoit la version périmée
+    private void refresh(ServerWebExchange exchange, String key, CompiledRule rule) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return;
+        }
+        URI routeUri = route.getUri();
+        String scheme = "lb".equals(routeUri.getScheme()) ? "http" : routeUri.getScheme();
+        String url = scheme + "://" + routeUri.getAuthority() + key;
+
+        webClient.get()
+                .uri(URI.create(url))
+                .header("X-Gateway", "gateway-service")
+                .retrieve()
+                .toEntity(byte[].class)
+                .timeout(rule.rule.getStaleWhileRevalidate().isZero()
+                        ? rule.rule.getTtl()
+                        : rule.rule.getStaleWhileRevalidate())
+                .subscribe(
+                        entity -> {
+                            if (entity.getStatusCode().value() == HttpStatus.OK.value() && entity.getBody() != null) {
+                                store(key, rule, HttpStatus.OK.value(), entity.getHeaders(), entity.getBody());
+                            } else {
+                                cache.asMap().computeIfPresent(key, (k, stale) -> {
+                                    stale.refreshFailed();
+                                    return stale;
+                                });
+                            }
+                        },
+                        error -> {
+                            logger.debug("Rafraîchissement de {} impossible : {}", key, error.getMessage());
+                            CachedResponse stale = cache.getIfPresent(key);
+                            if (stale != null) {
+                                stale.refreshFailed();
+                            }
+                        });
+    }
+
+    // Après une écriture réussie, retire le détail du produit visé (en-tête X-Product-Id de la
+    // réponse, sinon dernier ID du chemin) et toutes les listes, dont le contenu peut avoir changé
+    private Mono<Void> invalidateAfterWrite(ServerWebExchange exchange, GatewayFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (invalidatePaths.stream().noneMatch(pattern -> pattern.matches(path))) {
+            return chain.filter(exchange);
+        }
+
+        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (status != null && status.is2xxSuccessful()) {
+                String productId = exchange.getResponse().getHeaders().getFirst(PRODUCT_ID_HEADER);
+                invalidate(productId != null ? productId : lastObjectId(path.value()));
+            }
+        }));
+    }
+
+    private void invalidate(String productId) {
+        cache.asMap().keySet().removeIf(key -> {
+            String keyPath = key.contains("?") ? key.substring(0, key.indexOf('?')) : key;
+            String lastSegment = keyPath.substring(keyPath.lastIndexOf('/') + 1);
+            boolean detail = OBJECT_ID.matcher(lastSegment).matches();
+            return !detail || lastSegment.equals(productId);
+        });
+    }
+
+    private static String lastObjectId(String path) {
+        String[] segments = path.split("/");
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (OBJECT_ID.matcher(segments[i]).matches()) {
+                return segments[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return -2; // Avant JwtAuthFilter : un GET public servi depuis le cache ne va pas plus loin
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// Cache de réponses de la gateway (gateway.response-cache dans application.yaml).
+// Seuls les GET publics couverts par une règle sont mis en cache
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    public static class Rule {
+        private List<String> paths = new ArrayList<>();
+        private Duration ttl = Duration.ofSeconds(30);
+        // Après le TTL, l'entrée est encore servie pendant cette durée, le temps de la rafraîchir
+        private Duration staleWhileRevalidate = Duration.ZERO;
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+
+    private boolean enabled = true;
+
+    // Taille totale des réponses en cache
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Une réponse plus grande n'est pas mise en cache
+    private DataSize maxEntrySize = DataSize.ofMegabytes(2);
+
+    // Règles évaluées dans l'ordre, la première qui correspond au chemin s'applique
+    private List<Rule> rules = new ArrayList<>();
+
+    // Après stale-while-revalidate, une entrée est encore gardée cette durée pour les fallbacks
+    // des circuit breakers : le service en panne, une réponse ancienne vaut mieux qu'une erreur
+    private Duration staleIfError = Duration.ofMinutes(10);
+
+    // Une écriture réussie (POST, PUT, PATCH, DELETE) sur ces chemins invalide les entrées concernées
+    private List<String> invalidatePaths = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public Duration getStaleIfError() {
+        return staleIfError;
+    }
+
+    public void setStaleIfError(Duration staleIfError) {
+        this.staleIfError = staleIfError;
+    }
+
+    public List<String> getInvalidatePaths() {
+        return invalidatePaths;
+    }
+
+    public void setInvalidatePaths(List<String> invalidatePaths) {
+        this.invalidatePaths = invalidatePaths;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.buy01.gateway_service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+// Variantes gzip des réponses en cache, calculées une fois par remplissage du cache au lieu d'une
+// fois par requête. Mêmes règles que la compression à la volée de Netty (server.compression) :
+// types MIME et taille minimale. Le brotli demanderait une bibliothèque native, seul gzip est produit
+@Component
+public class ResponseCompressor {
+
+    private final Compression compression;
+    private final List<MediaType> mimeTypes;
+
+    public ResponseCompressor(ServerProperties serverProperties) {
+        this.compression = serverProperties.getCompression();
+        this.mimeTypes = Arrays.stream(compression.getMimeTypes())
+                .map(MediaType::parseMediaType)
+                .collect(Collectors.toList());
+    }
+
+    public boolean isCompressible(MediaType contentType, long length) {
+        return compression.getEnabled()
+                && contentType != null
+                && length >= compression.getMinResponseSize().toBytes()
+                && mimeTypes.stream().anyMatch(type -> type.isCompatibleWith(contentType));
+    }
+
+    // gzip accepté si présent (ou *) dans Accept-Encoding sans q=0
+    public static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                boolean refused = Arrays.stream(parts).skip(1)
+                        .map(String::trim)
+                        .anyMatch(param -> param.matches("q=0(\\.0*)?"));
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    public void gzip(Path source, Path target) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            Files.copy(source, out);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.buy01.gateway_service.logging;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// Plafond de débit par logger (logback-spring.xml) : un seau de jetons par nom de logger, rempli
+// à rate événements par seconde, capacité d'une seconde. Un logger bavard est écrêté avant
+// d'entrer dans la file de l'AsyncAppender et ne pousse donc plus dehors les INFO des autres.
+// WARN et ERROR ne sont jamais limités. Débit par préfixe de logger (le plus long l'emporte) :
+// limits = "com.example.buy01.product.service=50,org.apache.kafka=20" ; 0 = illimité
+public class LoggerRateLimitFilter extends TurboFilter {
+
+    private static final class Bucket {
+        private final double rate;
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double rate, long now) {
+            this.rate = rate;
+            this.tokens = rate;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean tryConsume(long now) {
+            tokens = Math.min(rate, tokens + (now - refilledAt) * rate / 1_000_000_000d);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    private record Limit(String prefix, double rate) {
+    }
+
+    private final LongSupplier nanoClock;
+    // Un seau par logger : borné par le nombre de loggers de l'application
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final List<Limit> limits = new ArrayList<>();
+    private double defaultRate = 200;
+
+    public LoggerRateLimitFilter() {
+        this(System::nanoTime);
+    }
+
+    LoggerRateLimitFilter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    public void setDefaultRate(double defaultRate) {
+        this.defaultRate = defaultRate;
+    }
+
+    public void setLimits(String limits) {
+        this.limits.clear();
+        for (String entry : limits.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('=');
+            if (separator <= 0) {
+                addError("Limite de journalisation invalide (attendu préfixe=débit) : " + trimmed);
+                continue;
+            }
+            try {
+                this.limits.add(new Limit(trimmed.substring(0, separator).trim(),
+                        Double.parseDouble(trimmed.substring(separator + 1).trim())));
+            } catch (NumberFormatException e) {
+                addError("Débit de journalisation invalide : " + trimmed);
+            }
+        }
+        this.limits.sort(Comparator.comparingInt((Limit limit) -> limit.prefix().length()).reversed());
+        buckets.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        // format null : simple test isXxxEnabled(), aucun événement n'est encore produit.
+        // Niveau sous celui du logger : l'événement sera écarté de toute façon, sans jeton consommé
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.computeIfAbsent(name, key -> new Bucket(rateFor(key), now));
+        if (bucket.rate <= 0) {
+            return FilterReply.NEUTRAL;
+        }
+        return bucket.tryConsume(now) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private double rateFor(String loggerName) {
+        for (Limit limit : limits) {
+            if (loggerName.equals(limit.prefix()) || loggerName.startsWith(limit.prefix() + ".")) {
+                return limit.rate();
+            }
+        }
+        return defaultRate;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.buy01.gateway_service.metrics;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Premier filtre de chaque requête routée : requêtes en cours par route (gateway.inflight),
+// octets reçus et envoyés (gateway.bytes, avant la compression Netty), et découpage du temps
+// entre la gateway (phase internal) et le service (phase upstream) à la réception des en-têtes.
+// Latence totale par route et par statut : spring.cloud.gateway.requests, publié par la gateway
+@Component
+public class EdgeMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final MeterRegistry meterRegistry;
+    private final PhaseTimers phaseTimers;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public EdgeMetricsFilter(MeterRegistry meterRegistry, PhaseTimers phaseTimers) {
+        this.meterRegistry = meterRegistry;
+        this.phaseTimers = phaseTimers;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        String route = PhaseTimers.routeId(exchange);
+        AtomicInteger routeInFlight = inFlight.computeIfAbsent(route, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("gateway.inflight", counter, AtomicInteger::get)
+                    .description("Requêtes en cours dans la gateway")
+                    .tag("route", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+        routeInFlight.incrementAndGet();
+
+        AtomicLong bytesIn = new AtomicLong();
+        AtomicLong bytesOut = new AtomicLong();
+        ServerHttpRequest request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().doOnNext(buffer -> bytesIn.addAndGet(buffer.readableByteCount()));
+            }
+        };
+        ServerHttpResponse response = new CountingResponse(exchange.getResponse(), bytesOut);
+
+        response.beforeCommit(() -> {
+            long committed = System.nanoTime();
+            Long upstreamStart = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_START_ATTRIBUTE);
+            if (upstreamStart != null) {
+                phaseTimers.record(PhaseTimers.UPSTREAM, exchange, committed - upstreamStart);
+                phaseTimers.record(PhaseTimers.INTERNAL, exchange, upstreamStart - start);
+            } else {
+                // Réponse produite par la gateway elle-même (cache, refus, fallback)
+                phaseTimers.record(PhaseTimers.INTERNAL, exchange, committed - start);
+            }
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doFinally(signal -> {
+                    routeInFlight.decrementAndGet();
+                    bytes(route, "in").record(bytesIn.get());
+                    bytes(route, "out").record(bytesOut.get());
+                });
+    }
+
+    private DistributionSummary bytes(String route, String direction) {
+        return DistributionSummary.builder("gateway.bytes")
+                .description("Taille des corps de requête et de réponse")
+                .baseUnit("bytes")
+                .tag("route", route)
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    // Compte les octets écrits ; garde l'envoi zero-copy des fichiers (EdgeFileCacheFilter)
+    private static final class CountingResponse extends ServerHttpResponseDecorator implements ZeroCopyHttpOutputMessage {
+
+        private final AtomicLong bytesOut;
+
+        private CountingResponse(ServerHttpResponse delegate, AtomicLong bytesOut) {
+            super(delegate);
+            this.bytesOut = bytesOut;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount())));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk)
+                    .doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount()))));
+        }
+
+        @Override
+        public Mono<Void> writeWith(Path file, long position, long count) {
+            if (getDelegate() instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+                bytesOut.addAndGet(count);
+                return zeroCopy.writeWith(file, position, count);
+            }
+            Flux<DataBuffer> content = DataBufferUtils.read(new FileSystemResource(file), position, bufferFactory(),
+                    READ_BUFFER_SIZE);
+            return writeWith(DataBufferUtils.takeUntilByteCount(content, count));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE; // Avant tous les autres filtres : tout le temps de la gateway est compté
+    }
+}
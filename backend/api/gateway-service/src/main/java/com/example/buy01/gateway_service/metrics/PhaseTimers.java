@@ -0,0 +1,47 @@
+package com.example.buy01.gateway_service.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Temps passé par la gateway dans chaque étape d'une requête (gateway.phase, tags phase et route) :
+// jwt (vérification du token), ratelimit (décision de limitation), internal (tout ce qui précède
+// l'appel au service), upstream (appel au service jusqu'à la réception de ses en-têtes)
+@Component
+public class PhaseTimers {
+
+    public static final String JWT = "jwt";
+    public static final String RATE_LIMIT = "ratelimit";
+    public static final String INTERNAL = "internal";
+    public static final String UPSTREAM = "upstream";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public PhaseTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String phase, ServerWebExchange exchange, long nanos) {
+        String route = routeId(exchange);
+        timers.computeIfAbsent(phase + "|" + route, key -> Timer.builder("gateway.phase")
+                .description("Temps passé par la gateway dans une étape de la requête")
+                .tag("phase", phase)
+                .tag("route", route)
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "none";
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.buy01.gateway_service.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+// Marque l'instant où la requête quitte les filtres de la gateway pour partir vers le service
+// (juste avant NettyRoutingFilter) ; EdgeMetricsFilter en déduit la part amont et la part interne
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_START_ATTRIBUTE = "gateway.metrics.upstream-start";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().put(UPSTREAM_START_ATTRIBUTE, System.nanoTime());
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1; // NettyRoutingFilter est à LOWEST_PRECEDENCE
+    }
+}
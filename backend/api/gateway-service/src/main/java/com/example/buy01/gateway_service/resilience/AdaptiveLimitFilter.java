@@ -0,0 +1,103 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+// Limite de concurrence adaptative par route : AdaptiveLimit=<nom> dans les filtres de la route,
+// après CircuitBreaker. Le temps de réponse est mesuré à la réception des en-têtes du service
+// (beforeCommit), pas à la fin de l'envoi au client. Une requête au-delà de la limite échoue
+// tout de suite (ConcurrencyLimitExceededException) : le fallback répond 503 + Retry-After,
+// ou une réponse en cache
+@Component
+public class AdaptiveLimitFilter implements GatewayFilterFactory<AdaptiveLimitFilter.Config> {
+
+    public static class Config {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, GradientLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveLimitFilter(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String name = config.getName();
+        ResilienceProperties.AdaptiveLimit settings = properties.getAdaptiveLimits().get(name);
+        if (settings == null) {
+            throw new IllegalArgumentException("Limite adaptative inconnue : " + name);
+        }
+
+        GradientLimiter limiter = limiters.computeIfAbsent(name, key -> {
+            GradientLimiter created = new GradientLimiter(settings);
+            Gauge.builder("gateway.adaptive.limit", created, GradientLimiter::getLimit)
+                    .description("Limite de concurrence estimée")
+                    .tag("limit", key)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.adaptive.inflight", created, GradientLimiter::getInFlight)
+                    .description("Requêtes en cours sous la limite adaptative")
+                    .tag("limit", key)
+                    .register(meterRegistry);
+            return created;
+        });
+        Counter shed = Counter.builder("gateway.adaptive.shed")
+                .description("Requêtes délestées par la limite adaptative")
+                .tag("limit", name)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> Mono.defer(() -> {
+            GradientLimiter.Permit permit = limiter.tryAcquire();
+            if (permit == null) {
+                shed.increment();
+                return Mono.error(new ConcurrencyLimitExceededException(name, settings.getRetryAfter()));
+            }
+
+            exchange.getResponse().beforeCommit(() -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                permit.onResponse(status != null && status.is5xxServerError());
+                return Mono.empty();
+            });
+            return chain.filter(exchange)
+                    .doOnError(error -> permit.onResponse(true))
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public Class<Config> getConfigClass() {
+        return Config.class;
+    }
+
+    @Override
+    public String name() {
+        return "AdaptiveLimit";
+    }
+}
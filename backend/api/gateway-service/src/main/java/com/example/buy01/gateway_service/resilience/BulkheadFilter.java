@@ -0,0 +1,91 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+// Bulkhead par service : Bulkhead=<nom> dans les filtres de la route, après CircuitBreaker.
+// Compteur non bloquant des appels en cours ; au-delà de max-concurrent-calls la requête échoue
+// tout de suite (BulkheadFullException) et le fallback du circuit breaker répond à sa place.
+// Un service lent n'immobilise ainsi qu'un nombre borné de connexions de la gateway
+@Component
+public class BulkheadFilter implements GatewayFilterFactory<BulkheadFilter.Config> {
+
+    public static class Config {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> activeCalls = new ConcurrentHashMap<>();
+
+    public BulkheadFilter(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String name = config.getName();
+        ResilienceProperties.Bulkhead bulkhead = properties.getBulkheads().get(name);
+        if (bulkhead == null) {
+            throw new IllegalArgumentException("Bulkhead inconnu : " + name);
+        }
+
+        // Plusieurs routes vers le même service partagent le même bulkhead
+        AtomicInteger active = activeCalls.computeIfAbsent(name, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("gateway.bulkhead.active", counter, AtomicInteger::get)
+                    .description("Appels en cours dans le bulkhead")
+                    .tag("bulkhead", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+        Counter rejected = Counter.builder("gateway.bulkhead.rejected")
+                .description("Requêtes refusées par le bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> Mono.defer(() -> {
+            if (active.incrementAndGet() > bulkhead.getMaxConcurrentCalls()) {
+                active.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new BulkheadFullException(name));
+            }
+            return chain.filter(exchange).doFinally(signal -> active.decrementAndGet());
+        });
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public Class<Config> getConfigClass() {
+        return Config.class;
+    }
+
+    @Override
+    public String name() {
+        return "Bulkhead";
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.time.Duration;
+
+// Plus de place dans le bulkhead d'un service : la requête est refusée sans être relayée
+public class BulkheadFullException extends RequestRejectedException {
+
+    public BulkheadFullException(String bulkhead) {
+        super("Bulkhead plein : " + bulkhead, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.time.Duration;
+
+// Limite adaptative de concurrence atteinte : le service sature, la requête est délestée tôt
+public class ConcurrencyLimitExceededException extends RequestRejectedException {
+
+    public ConcurrencyLimitExceededException(String limit, Duration retryAfter) {
+        super("Limite de concurrence atteinte : " + limit, retryAfter);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.buy01.gateway_service.cache.CachedResponse;
+import com.example.buy01.gateway_service.cache.ResponseCacheFilter;
+import com.example.buy01.gateway_service.cache.ResponseCompressor;
+
+import reactor.core.publisher.Mono;
+
+// Fallback des circuit breakers (fallbackUri: forward:/fallback) : circuit ouvert, délai dépassé,
+// requête refusée par la gateway (bulkhead, limite adaptative) ou erreur 5xx du service.
+// Un GET déjà en cache reçoit la dernière réponse connue, même périmée (X-Cache: STALE-IF-ERROR) ;
+// sinon 503 (504 après un délai dépassé) avec Retry-After
+@RestController
+public class FallbackController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackController.class);
+
+    private final ResponseCacheFilter responseCache;
+    private final ResponseCompressor compressor;
+    private final ResilienceProperties properties;
+
+    public FallbackController(ResponseCacheFilter responseCache, ResponseCompressor compressor,
+            ResilienceProperties properties) {
+        this.responseCache = responseCache;
+        this.compressor = compressor;
+        this.properties = properties;
+    }
+
+    @RequestMapping("/fallback")
+    public Mono<Void> fallback(ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        logger.debug("Fallback pour {} : {}", exchange.getAttribute(ResponseCacheFilter.CACHE_KEY_ATTRIBUTE),
+                cause != null ? cause.toString() : "circuit ouvert");
+
+        if (exchange.getRequest().getMethod() == HttpMethod.GET) {
+            CachedResponse stale = responseCache.fallbackFor(exchange);
+            if (stale != null) {
+                return stale.writeTo(exchange, "STALE-IF-ERROR", compressor);
+            }
+        }
+
+        exchange.getResponse().setStatusCode(isTimeout(cause) ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE);
+        // Refus de la gateway (surcharge passagère) : Retry-After propre au refus
+        Duration retryAfter = cause instanceof RequestRejectedException rejected
+                ? rejected.getRetryAfter()
+                : properties.getFallbackRetryAfter();
+        exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return exchange.getResponse().setComplete();
+    }
+
+    private static boolean isTimeout(Throwable cause) {
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            if (current instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Limite de concurrence adaptative par gradient de latence (dans l'esprit de Gradient2 / TCP Vegas).
+// Latence de référence = moyenne mobile longue des temps de réponse ; latence récente = moyenne
+// des sampleWindow dernières réponses. Tant que la latence récente reste sous
+// référence × tolérance, la limite monte (de √limite par mise à jour) ; au-delà elle baisse en
+// proportion, jusqu'à la moitié par mise à jour. Une erreur 5xx ou un délai dépassé la réduit
+// de backoffRatio. Les requêtes au-delà de la limite sont refusées sans attendre : la file côté
+// service reste courte et la latence de queue bornée
+public class GradientLimiter {
+
+    // Jeton d'une requête admise : onResponse à la réception des en-têtes, release à la fin
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean sampled = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // dropped : erreur 5xx ou délai dépassé, signe de surcharge
+        public void onResponse(boolean dropped) {
+            if (sampled.compareAndSet(false, true)) {
+                sample(clock.getAsLong() - startNanos, inFlightAtStart, dropped);
+            }
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private final ResilienceProperties.AdaptiveLimit settings;
+    private final LongSupplier clock;
+    private final double longAlpha;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double estimatedLimit;
+
+    // Protégés par this
+    private double longRttNanos;
+    private long windowSumNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    public GradientLimiter(ResilienceProperties.AdaptiveLimit settings) {
+        this(settings, System::nanoTime);
+    }
+
+    GradientLimiter(ResilienceProperties.AdaptiveLimit settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.longAlpha = 2.0 / (settings.getLongWindow() + 1);
+        this.estimatedLimit = settings.getInitialLimit();
+    }
+
+    // null si la limite est atteinte
+    public Permit tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > getLimit()) {
+            inFlight.decrementAndGet();
+            return null;
+        }
+        return new Permit(clock.getAsLong(), current);
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = clamp(estimatedLimit * settings.getBackoffRatio());
+            return;
+        }
+
+        windowSumNanos += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (windowCount < settings.getSampleWindow()) {
+            return;
+        }
+        double shortRtt = (double) windowSumNanos / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowSumNanos = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) * longAlpha;
+        }
+        // Latence revenue bien sous la référence (service rétabli) : la référence redescend plus vite
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Trop peu de requêtes en cours pour juger le service : la limite ne bouge pas
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getRttTolerance() * longRttNanos / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueSize;
+        estimatedLimit = clamp(estimatedLimit * (1 - settings.getSmoothing()) + target * settings.getSmoothing());
+    }
+
+    private double clamp(double limit) {
+        return Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), limit));
+    }
+}
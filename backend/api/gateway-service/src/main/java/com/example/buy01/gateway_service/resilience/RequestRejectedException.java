@@ -0,0 +1,20 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.time.Duration;
+
+// Requête refusée par la gateway pour protéger un service (bulkhead, limite de concurrence),
+// sans avoir été relayée. Levée dans le circuit breaker de la route : le fallback répond, et
+// le refus ne compte pas comme un échec du service
+public class RequestRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RequestRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
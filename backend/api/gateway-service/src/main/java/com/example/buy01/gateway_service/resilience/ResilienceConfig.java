@@ -0,0 +1,41 @@
+package com.example.buy01.gateway_service.resilience;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+
+// Circuit breakers Resilience4j des routes (filtre CircuitBreaker), réglés depuis gateway.resilience.
+// Une requête refusée par la gateway (bulkhead, limite adaptative) déclenche le fallback
+// sans compter comme un échec du service
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public Customizer<ReactiveResilience4JCircuitBreakerFactory> circuitBreakerCustomizer(
+            ResilienceProperties properties) {
+        return factory -> factory.configureDefault(id -> {
+            ResilienceProperties.CircuitBreaker settings = properties.getCircuitBreakers()
+                    .getOrDefault(id, new ResilienceProperties.CircuitBreaker());
+            return new Resilience4JConfigBuilder(id)
+                    .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                            .slidingWindowSize(settings.getSlidingWindowSize())
+                            .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                            .failureRateThreshold(settings.getFailureRateThreshold())
+                            .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                            .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                            .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                            .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                            .ignoreExceptions(RequestRejectedException.class)
+                            .build())
+                    .timeLimiterConfig(TimeLimiterConfig.custom()
+                            .timeoutDuration(settings.getTimeout())
+                            .build())
+                    .build();
+        });
+    }
+}
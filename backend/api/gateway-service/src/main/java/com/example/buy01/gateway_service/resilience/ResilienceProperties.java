@@ -0,0 +1,240 @@
+package com.example.buy01.gateway_service.resilience;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Circuit breakers et bulkheads par service (gateway.resilience dans application.yaml).
+// Une route les applique avec les filtres CircuitBreaker (name = nom du circuit breaker),
+// Bulkhead=<nom> et AdaptiveLimit=<nom> ; le délai de réponse par route est dans ses metadata
+@Component
+@ConfigurationProperties(prefix = "gateway.resilience")
+public class ResilienceProperties {
+
+    public static class CircuitBreaker {
+        // Taux d'échecs (%) sur la fenêtre glissante qui ouvre le circuit
+        private float failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        // Les appels plus lents que ce seuil comptent comme lents ; trop d'appels lents ouvrent le circuit
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(3);
+        private float slowCallRateThreshold = 80;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(15);
+        private int permittedCallsInHalfOpenState = 3;
+        // Délai maximal de l'appel vu par le circuit breaker (au-dessus du response-timeout de la route)
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public Duration getSlowCallDurationThreshold() {
+            return slowCallDurationThreshold;
+        }
+
+        public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+            this.slowCallDurationThreshold = slowCallDurationThreshold;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getWaitDurationInOpenState() {
+            return waitDurationInOpenState;
+        }
+
+        public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+            this.waitDurationInOpenState = waitDurationInOpenState;
+        }
+
+        public int getPermittedCallsInHalfOpenState() {
+            return permittedCallsInHalfOpenState;
+        }
+
+        public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Bulkhead {
+        // Appels simultanés vers le service ; au-delà, réponse immédiate par le fallback
+        private int maxConcurrentCalls = 100;
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+
+    // Limite de concurrence adaptative (voir GradientLimiter) : la limite suit le rapport entre
+    // la latence de référence (moyenne longue) et la latence récente du service
+    public static class AdaptiveLimit {
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+        // Hausse de latence tolérée avant de réduire la limite (1.5 = +50 %)
+        private double rttTolerance = 1.5;
+        // Part de la nouvelle estimation appliquée à chaque mise à jour
+        private double smoothing = 0.2;
+        // Nombre d'échantillons de la moyenne longue (latence de référence)
+        private int longWindow = 600;
+        // Réponses moyennées avant chaque mise à jour de la limite
+        private int sampleWindow = 10;
+        // Facteur appliqué à la limite après une erreur 5xx ou un délai dépassé
+        private double backoffRatio = 0.9;
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+
+        public int getSampleWindow() {
+            return sampleWindow;
+        }
+
+        public void setSampleWindow(int sampleWindow) {
+            this.sampleWindow = sampleWindow;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    // Un circuit breaker absent de la liste prend les valeurs par défaut ci-dessus
+    private Map<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+
+    private Map<String, Bulkhead> bulkheads = new HashMap<>();
+
+    private Map<String, AdaptiveLimit> adaptiveLimits = new HashMap<>();
+
+    // Retry-After des réponses 503/504 du fallback quand aucune réponse en cache n'existe
+    private Duration fallbackRetryAfter = Duration.ofSeconds(5);
+
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    public void setCircuitBreakers(Map<String, CircuitBreaker> circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    public Map<String, Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    public void setBulkheads(Map<String, Bulkhead> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    public Map<String, AdaptiveLimit> getAdaptiveLimits() {
+        return adaptiveLimits;
+    }
+
+    public void setAdaptiveLimits(Map<String, AdaptiveLimit> adaptiveLimits) {
+        this.adaptiveLimits = adaptiveLimits;
+    }
+
+    public Duration getFallbackRetryAfter() {
+        return fallbackRetryAfter;
+    }
+
+    public void setFallbackRetryAfter(Duration fallbackRetryAfter) {
+        this.fallbackRetryAfter = fallbackRetryAfter;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.buy01.gateway_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+
+// RateLimitStore en mémoire : partagé seulement entre les filtres d'une même JVM.
+// Sert de store par défaut et de remplaçant du store partagé dans les tests
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final class SharedBucket {
+        private long tokens;
+        private long lastRefillNanos;
+    }
+
+    private final Cache<String, SharedBucket> buckets;
+
+    public InMemoryRateLimitStore(RateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+    }
+
+    @Override
+    public Mono<Grant> acquire(String key, RateLimitProperties.Policy policy, long requested) {
+        long now = System.nanoTime();
+        SharedBucket bucket = buckets.get(key, k -> {
+            SharedBucket created = new SharedBucket();
+            created.tokens = policy.getCapacity();
+            created.lastRefillNanos = now;
+            return created;
+        });
+
+        synchronized (bucket) {
+            // Recharge par périodes entières, comme Refill.intervally côté Bucket4j
+            long periodNanos = policy.getRefillPeriod().toNanos();
+            long periods = (now - bucket.lastRefillNanos) / periodNanos;
+            if (periods > 0) {
+                bucket.tokens = Math.min(policy.getCapacity(), bucket.tokens + periods * policy.getRefillTokens());
+                bucket.lastRefillNanos += periods * periodNanos;
+            }
+
+            long granted = Math.min(requested, bucket.tokens);
+            bucket.tokens -= granted;
+            long nanosToWait = granted > 0 ? 0 : periodNanos - (now - bucket.lastRefillNanos);
+            return Mono.just(new Grant(granted, nanosToWait));
+        }
+    }
+
+    @Override
+    public Mono<Void> release(String key, RateLimitProperties.Policy policy, long tokens) {
+        SharedBucket bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            synchronized (bucket) {
+                bucket.tokens = Math.min(policy.getCapacity(), bucket.tokens + tokens);
+            }
+        }
+        return Mono.empty();
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.buy01.gateway_service.security;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -8,26 +7,34 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.buy01.gateway_service.metrics.PhaseTimers;
+
 @Component
 public class JwtAuthFilter implements GlobalFilter, Ordered {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Attribut d'échange portant l'email de l'utilisateur authentifié (utilisé par RateLimiterFilter)
+    public static final String PRINCIPAL_ATTRIBUTE = "gateway.principal";
+
+    private final JwtVerifier jwtVerifier;
+
+    private final PublicRouteMatcher publicRouteMatcher;
+
+    private final PhaseTimers phaseTimers;
+
+    public JwtAuthFilter(JwtVerifier jwtVerifier, PublicRouteMatcher publicRouteMatcher, PhaseTimers phaseTimers) {
+        this.jwtVerifier = jwtVerifier;
+        this.publicRouteMatcher = publicRouteMatcher;
+        this.phaseTimers = phaseTimers;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -46,25 +53,20 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         }
 
         String token = authHeader.substring(7);
-        logger.info("token: {}", token);
-        Claims claims;
-
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (Exception e) {
+        long start = System.nanoTime();
+        JwtVerifier.VerifiedToken verified = jwtVerifier.verify(token);
+        phaseTimers.record(PhaseTimers.JWT, exchange, System.nanoTime() - start);
+        if (verified == null) {
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
         // Injecter les claims dans les headers vers les microservices
-        String username = claims.getSubject();
-        String role = (String) claims.get("role");
-        logger.info("Username: {}, Role: {}", username, role);
+        String username = verified.getSubject();
+        String role = verified.getRole();
+        logger.debug("Username: {}, Role: {}", username, role);
+
+        exchange.getAttributes().put(PRINCIPAL_ATTRIBUTE, username);
 
         ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
                 .header("X-USER-EMAIL", username)
@@ -75,19 +77,7 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
     }
 
     private boolean isPublicEndpoint(ServerHttpRequest request) {
-        String path = request.getURI().getPath();
-        return path.startsWith("/api/auth/")
-                || path.startsWith("/api/products/all")
-                || path.matches("/api/products/\\d+")
-                || path.startsWith("/v3/api-docs")
-                || path.startsWith("/swagger-ui.html")
-                || path.startsWith("/swagger-ui")
-                || path.startsWith("/swagger-resources")
-                || path.startsWith("/webjars")
-                || path.startsWith("/avatars/")
-                || path.startsWith("/productsImages/")
-                || path.equals("/");
-
+        return publicRouteMatcher.isPublic(request.getURI().getPath());
     }
 
     @Override
@@ -0,0 +1,138 @@
+package com.example.buy01.gateway_service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Vérification des JWT : clé et parser construits une seule fois, puis cache borné des tokens
+// déjà vérifiés (clé = SHA-256 du token). Une entrée expire à l'exp du token : une requête
+// répétée avec le même token ne refait ni la vérification de signature ni le parsing des claims
+@Component
+public class JwtVerifier {
+
+    // Identité extraite d'un token valide
+    public static final class VerifiedToken {
+        private final String subject;
+        private final String role;
+        private final long expiresAtMillis;
+
+        VerifiedToken(String subject, String role, long expiresAtMillis) {
+            this.subject = subject;
+            this.role = role;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+
+    private final JwtParser parser;
+    private final long defaultTtlMillis;
+    private final LongSupplier clockMillis;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    @Autowired
+    public JwtVerifier(
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration}") long defaultTtlMillis,
+            @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this(Jwts.parserBuilder().setSigningKey(key(jwtSecret)).build(), defaultTtlMillis, maxSize,
+                System::currentTimeMillis);
+    }
+
+    // Parser et horloge injectables pour les tests ; le parser doit suivre la même horloge
+    JwtVerifier(JwtParser parser, long defaultTtlMillis, long maxSize, LongSupplier clockMillis) {
+        this.parser = parser;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.clockMillis = clockMillis;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(() -> clockMillis.getAsLong() * 1_000_000)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, token.expiresAtMillis - clockMillis.getAsLong()) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // null si le token est invalide ou expiré
+    public VerifiedToken verify(String token) {
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && cached.expiresAtMillis > clockMillis.getAsLong()) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            return null;
+        }
+
+        // Sans exp, le token est gardé au plus la durée de vie standard d'un token
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null
+                ? expiration.getTime()
+                : clockMillis.getAsLong() + defaultTtlMillis;
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), (String) claims.get("role"), expiresAt);
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
+    }
+
+    static SecretKey key(String jwtSecret) {
+        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Nombre de tokens gardés, après éviction des entrées en trop ou expirées
+    long cachedTokens() {
+        verifiedTokens.cleanUp();
+        return verifiedTokens.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
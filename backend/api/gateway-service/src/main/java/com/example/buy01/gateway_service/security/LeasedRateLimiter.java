@@ -0,0 +1,111 @@
+package com.example.buy01.gateway_service.security;
+
+import java.util.function.LongSupplier;
+
+import reactor.core.publisher.Mono;
+
+// Bucket distribué vu d'une réplique : les jetons sont pris au RateLimitStore par lots
+// (lease-size) et consommés localement tant que le bail est valide (lease-ttl).
+// La plupart des décisions ne font donc pas d'aller-retour vers le store. Les jetons non utilisés
+// d'un bail expiré sont rendus au store (à l'expiration, ou à la requête suivante si elle arrive
+// avant) : un client lent ne consomme que ce qu'il utilise. Un seul appel au store est en cours
+// par clé ; les requêtes qui le rejoignent se servent dans le bail obtenu
+class LeasedRateLimiter {
+
+    private static final Mono<Long> ACCEPTED = Mono.just(0L);
+
+    private final String key;
+    private final RateLimitProperties.Policy policy;
+    private final RateLimitStore store;
+    private final LongSupplier nanoClock;
+
+    private long localTokens;
+    private long leaseExpiresAtNanos;
+    private long leaseGeneration;
+
+    // Prise de bail en cours (null sinon) : 0 si un bail a été obtenu, sinon le délai (ns) avant le prochain jeton
+    private Mono<Long> acquiring;
+    private long acquisitionId;
+
+    LeasedRateLimiter(String key, RateLimitProperties.Policy policy, RateLimitStore store) {
+        this(key, policy, store, System::nanoTime);
+    }
+
+    LeasedRateLimiter(String key, RateLimitProperties.Policy policy, RateLimitStore store, LongSupplier nanoClock) {
+        this.key = key;
+        this.policy = policy;
+        this.store = store;
+        this.nanoClock = nanoClock;
+    }
+
+    // 0 si la requête est acceptée, sinon le délai (ns) avant le prochain jeton
+    Mono<Long> tryConsume() {
+        Mono<Long> pending;
+        long unused = 0;
+        synchronized (this) {
+            if (localTokens > 0 && nanoClock.getAsLong() < leaseExpiresAtNanos) {
+                localTokens--;
+                return ACCEPTED;
+            }
+            pending = acquiring;
+            if (pending == null) {
+                // Bail expiré : ses jetons restants repartent au store avant d'en demander d'autres
+                unused = localTokens;
+                localTokens = 0;
+                leaseGeneration++;
+                pending = acquireLease(unused, ++acquisitionId);
+                acquiring = pending;
+                return pending;
+            }
+        }
+        // Bail déjà demandé par une autre requête : on attend sa réponse puis on réessaie localement
+        return pending.flatMap(nanosToWait -> nanosToWait > 0 ? Mono.just(nanosToWait) : Mono.defer(this::tryConsume));
+    }
+
+    // La prise de bail est libérée avant que les requêtes en attente ne reçoivent le résultat :
+    // celles qui réessaient en demandent alors une nouvelle au lieu d'attendre de nouveau celle-ci
+    private Mono<Long> acquireLease(long unused, long id) {
+        Mono<Void> giveBack = unused > 0 ? store.release(key, policy, unused) : Mono.empty();
+        return giveBack
+                .then(store.acquire(key, policy, policy.getLeaseSize()))
+                .map(grant -> {
+                    if (grant.getGranted() == 0) {
+                        acquisitionDone(id);
+                        return Math.max(1, grant.getNanosToWait());
+                    }
+                    long generation;
+                    synchronized (this) {
+                        acquisitionDone(id);
+                        // Le premier jeton est celui de la requête qui a demandé le bail
+                        localTokens = grant.getGranted() - 1;
+                        leaseExpiresAtNanos = nanoClock.getAsLong() + policy.getLeaseTtl().toNanos();
+                        generation = ++leaseGeneration;
+                    }
+                    if (grant.getGranted() > 1) {
+                        Mono.delay(policy.getLeaseTtl()).subscribe(tick -> returnExpired(generation));
+                    }
+                    return 0L;
+                })
+                .doFinally(signal -> acquisitionDone(id))
+                .cache();
+    }
+
+    private synchronized void acquisitionDone(long id) {
+        if (acquisitionId == id) {
+            acquiring = null;
+        }
+    }
+
+    // Expiration du bail generation : ses jetons restants sont rendus, sauf s'il a déjà été remplacé
+    private void returnExpired(long generation) {
+        long unused;
+        synchronized (this) {
+            if (generation != leaseGeneration || localTokens == 0) {
+                return;
+            }
+            unused = localTokens;
+            localTokens = 0;
+        }
+        store.release(key, policy, unused).subscribe();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.buy01.gateway_service.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Trie des routes publiques, compilé une fois au démarrage à partir de PublicRoutesProperties.
+// isPublic parcourt le chemin en un seul passage, segment par segment, sans découper la chaîne
+// ni allouer : les segments sont comparés directement dans le chemin (regionMatches).
+// Le motif le plus spécifique gagne : littéral, puis *, puis **
+@Component
+public class PublicRouteMatcher {
+
+    private static final byte NONE = 0;
+    private static final byte PUBLIC = 1;
+    private static final byte PROTECTED = 2;
+
+    private static final class Node {
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        private Node anySegment; // *
+        private byte anyRest = NONE; // **
+        private byte terminal = NONE;
+
+        private Node literal(String segment) {
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = segment;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+    }
+
+    private final Node root = new Node();
+
+    @Autowired
+    public PublicRouteMatcher(PublicRoutesProperties properties) {
+        this(properties.getPublicPaths(), properties.getProtectedPaths());
+    }
+
+    PublicRouteMatcher(List<String> publicPaths, List<String> protectedPaths) {
+        publicPaths.forEach(pattern -> add(pattern, PUBLIC));
+        protectedPaths.forEach(pattern -> add(pattern, PROTECTED));
+    }
+
+    public boolean isPublic(String path) {
+        return match(root, path, 0) == PUBLIC;
+    }
+
+    private void add(String pattern, byte access) {
+        Node node = root;
+        String[] parts = pattern.split("/");
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.isEmpty()) {
+                continue;
+            }
+            if (part.equals("**")) {
+                if (i != parts.length - 1) {
+                    throw new IllegalArgumentException("** doit terminer le motif : " + pattern);
+                }
+                node.anyRest = merge(node.anyRest, access);
+                return;
+            }
+            if (part.equals("*")) {
+                if (node.anySegment == null) {
+                    node.anySegment = new Node();
+                }
+                node = node.anySegment;
+            } else {
+                node = node.literal(part);
+            }
+        }
+        node.terminal = merge(node.terminal, access);
+    }
+
+    private static byte merge(byte current, byte access) {
+        return current == PROTECTED ? PROTECTED : access;
+    }
+
+    private static byte match(Node node, String path, int from) {
+        int start = from;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start == path.length()) {
+            return node.terminal != NONE ? node.terminal : node.anyRest;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - start;
+
+        for (int i = 0; i < node.segments.length; i++) {
+            String segment = node.segments[i];
+            if (segment.length() == length && path.regionMatches(start, segment, 0, length)) {
+                byte access = match(node.children[i], path, end);
+                if (access != NONE) {
+                    return access;
+                }
+                break;
+            }
+        }
+        if (node.anySegment != null) {
+            byte access = match(node.anySegment, path, end);
+            if (access != NONE) {
+                return access;
+            }
+        }
+        return node.anyRest;
+    }
+}
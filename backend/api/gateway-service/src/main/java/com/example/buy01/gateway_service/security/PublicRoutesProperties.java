@@ -0,0 +1,35 @@
+package com.example.buy01.gateway_service.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Table des routes accessibles sans token (gateway.public-routes dans application.yaml).
+// Motifs par segment : littéral, * (un segment) ou ** (tous les segments restants, en dernier).
+// protected-paths l'emporte sur public-paths à spécificité égale et sert aux exceptions
+// (ex. /api/products/* public sauf /api/products/myproducts)
+@Component
+@ConfigurationProperties(prefix = "gateway.public-routes")
+public class PublicRoutesProperties {
+
+    private List<String> publicPaths = new ArrayList<>();
+    private List<String> protectedPaths = new ArrayList<>();
+
+    public List<String> getPublicPaths() {
+        return publicPaths;
+    }
+
+    public void setPublicPaths(List<String> publicPaths) {
+        this.publicPaths = publicPaths;
+    }
+
+    public List<String> getProtectedPaths() {
+        return protectedPaths;
+    }
+
+    public void setProtectedPaths(List<String> protectedPaths) {
+        this.protectedPaths = protectedPaths;
+    }
+}
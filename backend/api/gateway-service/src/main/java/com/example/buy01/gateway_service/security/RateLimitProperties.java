@@ -0,0 +1,146 @@
+package com.example.buy01.gateway_service.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Politiques de limitation de débit (gateway.rate-limit dans application.yaml).
+// Une route les applique avec le filtre RateLimiter=<nom de politique>
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    public enum Mode {
+        LOCAL, // buckets propres à chaque réplique
+        DISTRIBUTED // buckets partagés dans le RateLimitStore, jetons loués par lots
+    }
+
+    public enum KeyType {
+        IP, // adresse du client
+        PRINCIPAL // utilisateur authentifié (email du JWT), adresse du client à défaut
+    }
+
+    public static class Policy {
+        private KeyType key = KeyType.IP;
+        private long capacity = 5;
+        private long refillTokens = 5;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+        // Restrictions optionnelles : méthodes HTTP et chemins (PathPattern) concernés
+        private List<String> methods = new ArrayList<>();
+        private List<String> paths = new ArrayList<>();
+        // Mode distributed : jetons pris au store en une fois, et durée de validité de ce lot
+        private long leaseSize = 1;
+        private Duration leaseTtl = Duration.ofSeconds(5);
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getRefillTokens() {
+            return refillTokens;
+        }
+
+        public void setRefillTokens(long refillTokens) {
+            this.refillTokens = refillTokens;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public long getLeaseSize() {
+            return leaseSize;
+        }
+
+        public void setLeaseSize(long leaseSize) {
+            this.leaseSize = leaseSize;
+        }
+
+        public Duration getLeaseTtl() {
+            return leaseTtl;
+        }
+
+        public void setLeaseTtl(Duration leaseTtl) {
+            this.leaseTtl = leaseTtl;
+        }
+    }
+
+    private Mode mode = Mode.LOCAL;
+
+    // Nombre maximal de buckets en mémoire, toutes politiques confondues
+    private long maxBuckets = 100_000;
+
+    // Un bucket inutilisé pendant cette durée est évincé (il serait de toute façon plein)
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    private Map<String, Policy> policies = new HashMap<>();
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getIdleExpiry() {
+        return idleExpiry;
+    }
+
+    public void setIdleExpiry(Duration idleExpiry) {
+        this.idleExpiry = idleExpiry;
+    }
+
+    public Map<String, Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(Map<String, Policy> policies) {
+        this.policies = policies;
+    }
+}
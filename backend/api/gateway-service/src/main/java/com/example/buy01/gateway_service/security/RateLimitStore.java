@@ -0,0 +1,36 @@
+package com.example.buy01.gateway_service.security;
+
+import reactor.core.publisher.Mono;
+
+// Stockage partagé des buckets pour la limitation de débit distribuée (mode distributed) :
+// toutes les répliques de la gateway consomment le même bucket. L'implémentation doit
+// recharger puis prélever de façon atomique (ex. script Lua sur un Redis partagé).
+// InMemoryRateLimitStore ne sert qu'en mode local et dans les tests : en mode distributed,
+// un bean RateLimitStore partagé est obligatoire (voir RateLimitStoreConfig)
+public interface RateLimitStore {
+
+    // Jetons accordés par le store : granted ≤ requested, nanosToWait > 0 si aucun jeton n'est disponible
+    final class Grant {
+        private final long granted;
+        private final long nanosToWait;
+
+        public Grant(long granted, long nanosToWait) {
+            this.granted = granted;
+            this.nanosToWait = nanosToWait;
+        }
+
+        public long getGranted() {
+            return granted;
+        }
+
+        public long getNanosToWait() {
+            return nanosToWait;
+        }
+    }
+
+    // Prélève jusqu'à requested jetons dans le bucket key, créé plein selon la politique au premier appel
+    Mono<Grant> acquire(String key, RateLimitProperties.Policy policy, long requested);
+
+    // Rend des jetons loués mais non utilisés, sans dépasser la capacité du bucket
+    Mono<Void> release(String key, RateLimitProperties.Policy policy, long tokens);
+}
@@ -0,0 +1,22 @@
+package com.example.buy01.gateway_service.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitStoreConfig {
+
+    // Store local du mode local ; un bean RateLimitStore partagé (Redis, ...) le remplace.
+    // En mode distributed sans store partagé, chaque réplique aurait son propre budget :
+    // le démarrage échoue plutôt que de multiplier silencieusement la limite par le nombre de répliques
+    @Bean
+    @ConditionalOnMissingBean(RateLimitStore.class)
+    public RateLimitStore inMemoryRateLimitStore(RateLimitProperties properties) {
+        if (properties.getMode() == RateLimitProperties.Mode.DISTRIBUTED) {
+            throw new IllegalStateException("gateway.rate-limit.mode=distributed demande un bean RateLimitStore "
+                    + "partagé entre les répliques (Redis, ...) ; aucun n'est défini");
+        }
+        return new InMemoryRateLimitStore(properties);
+    }
+}
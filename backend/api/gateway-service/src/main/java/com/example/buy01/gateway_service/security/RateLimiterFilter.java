@@ -2,65 +2,196 @@ package com.example.buy01.gateway_service.security;
 
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.buy01.gateway_service.metrics.PhaseTimers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+// Limitation de débit par route : RateLimiter=<politique> dans les filtres de la route.
+// Buckets par (politique, client) dans un cache borné en taille et évincé après inactivité :
+// Bucket4j local en mode local, LeasedRateLimiter sur le RateLimitStore partagé en mode distributed.
+// Rejets et nombre de buckets publiés dans Micrometer
 @Component
-public class RateLimiterFilter implements GatewayFilterFactory<Object> {
+public class RateLimiterFilter implements GatewayFilterFactory<RateLimiterFilter.Config> {
+
+    public static class Config {
+        private String policy;
+
+        public String getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(String policy) {
+            this.policy = policy;
+        }
+    }
+
+    // Décision de limitation pour un client : 0 si la requête passe, sinon le délai (ns) avant le prochain jeton
+    private interface Limiter {
+        Mono<Long> tryConsume();
+    }
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RateLimitStore store;
+    private final Cache<String, Limiter> buckets;
+    private final PhaseTimers phaseTimers;
+
+    @Autowired
+    public RateLimiterFilter(RateLimitProperties properties, MeterRegistry meterRegistry, RateLimitStore store,
+            PhaseTimers phaseTimers) {
+        this(properties, meterRegistry, store, phaseTimers, Ticker.systemTicker());
+    }
+
+    // Horloge de l'éviction après inactivité injectable pour les tests
+    RateLimiterFilter(RateLimitProperties properties, MeterRegistry meterRegistry, RateLimitStore store,
+            PhaseTimers phaseTimers, Ticker ticker) {
+        this.properties = properties;
+        this.phaseTimers = phaseTimers;
+        this.meterRegistry = meterRegistry;
+        this.store = store;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .ticker(ticker)
+                .build();
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Buckets de limitation de débit en mémoire")
+                .register(meterRegistry);
+    }
 
     @Override
-    public GatewayFilter apply(Object config) {
+    public GatewayFilter apply(Config config) {
+        String policyName = config.getPolicy();
+        RateLimitProperties.Policy policy = properties.getPolicies().get(policyName);
+        if (policy == null) {
+            throw new IllegalArgumentException("Politique de limitation inconnue : " + policyName);
+        }
+
+        List<PathPattern> paths = policy.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        Counter rejected = Counter.builder("gateway.ratelimit.rejected")
+                .description("Requêtes refusées par la limitation de débit")
+                .tag("policy", policyName)
+                .register(meterRegistry);
+
         return (exchange, chain) -> {
-            String path = exchange.getRequest().getURI().getPath();
-            String ip = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-
-            if (ip == null) {
-                java.net.SocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
-                if (remoteAddress instanceof java.net.InetSocketAddress) {
-                    java.net.InetSocketAddress inetSocketAddress = (java.net.InetSocketAddress) remoteAddress;
-                    if (inetSocketAddress.getAddress() != null) {
-                        ip = inetSocketAddress.getAddress().getHostAddress();
-                    } else {
-                        ip = "unknown";
-                    }
-                } else {
-                    ip = "unknown";
-                }
+            ServerHttpRequest request = exchange.getRequest();
+            if (!applies(policy, paths, request)) {
+                return chain.filter(exchange);
             }
 
-            // Appliquer uniquement sur /api/auth/login
-            if (path.equals("/api/auth/login")) {
-                Bucket bucket = buckets.computeIfAbsent(ip, this::newBucket);
-                if (bucket.tryConsume(1)) {
+            String key = policyName + "|" + clientKey(policy, exchange.getAttribute(JwtAuthFilter.PRINCIPAL_ATTRIBUTE), request);
+            Limiter limiter = buckets.get(key, k -> newLimiter(k, policy));
+            long start = System.nanoTime();
+            return limiter.tryConsume().flatMap(nanosToWait -> {
+                phaseTimers.record(PhaseTimers.RATE_LIMIT, exchange, System.nanoTime() - start);
+                if (nanosToWait == 0) {
                     return chain.filter(exchange);
-                } else {
-                    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-                    return exchange.getResponse().setComplete();
                 }
-            }
 
-            return chain.filter(exchange);
+                rejected.increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanosToWait));
+                exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                return exchange.getResponse().setComplete();
+            });
         };
     }
 
-    private Bucket newBucket(String ip) {
-        Refill refill = Refill.intervally(5, Duration.ofMinutes(1));
-        Bandwidth limit = Bandwidth.classic(5, refill);
+    // Nombre de buckets gardés, après éviction des buckets en trop ou inactifs
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private Limiter newLimiter(String key, RateLimitProperties.Policy policy) {
+        if (properties.getMode() == RateLimitProperties.Mode.DISTRIBUTED) {
+            return new LeasedRateLimiter(key, policy, store)::tryConsume;
+        }
+        Bucket bucket = newBucket(policy);
+        return () -> {
+            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+            return Mono.just(probe.isConsumed() ? 0L : Math.max(1, probe.getNanosToWaitForRefill()));
+        };
+    }
+
+    private static boolean applies(RateLimitProperties.Policy policy, List<PathPattern> paths, ServerHttpRequest request) {
+        if (!policy.getMethods().isEmpty() && !policy.getMethods().contains(request.getMethod().name())) {
+            return false;
+        }
+        if (paths.isEmpty()) {
+            return true;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String clientKey(RateLimitProperties.Policy policy, Object principal, ServerHttpRequest request) {
+        if (policy.getKey() == RateLimitProperties.KeyType.PRINCIPAL && principal != null) {
+            return "user:" + principal;
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        String ip = request.getHeaders().getFirst("X-Forwarded-For");
+        if (ip != null) {
+            return ip;
+        }
+
+        java.net.SocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress instanceof java.net.InetSocketAddress) {
+            java.net.InetSocketAddress inetSocketAddress = (java.net.InetSocketAddress) remoteAddress;
+            if (inetSocketAddress.getAddress() != null) {
+                return inetSocketAddress.getAddress().getHostAddress();
+            }
+        }
+        return "unknown";
+    }
+
+    private Bucket newBucket(RateLimitProperties.Policy policy) {
+        Refill refill = Refill.intervally(policy.getRefillTokens(), policy.getRefillPeriod());
+        Bandwidth limit = Bandwidth.classic(policy.getCapacity(), refill);
         return Bucket.builder().addLimit(limit).build();
     }
 
     @Override
-    public Class<Object> getConfigClass() {
-        return Object.class;
+    public List<String> shortcutFieldOrder() {
+        return List.of("policy");
+    }
+
+    @Override
+    public Class<Config> getConfigClass() {
+        return Config.class;
     }
 
     @Override
@@ -0,0 +1,38 @@
+package com.example.buy01.gateway_service.storefront;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.buy01.gateway_service.security.JwtVerifier;
+
+import reactor.core.publisher.Mono;
+
+// Point d'entrée unique de la page catalogue du front : remplace les appels séparés aux produits
+// et à l'utilisateur courant. Servi par la gateway elle-même (pas une route), le jeton est donc
+// vérifié ici : absent ou invalide, la page est rendue sans utilisateur
+@RestController
+@RequestMapping("/api/storefront")
+public class StorefrontController {
+
+    private final StorefrontService storefrontService;
+    private final JwtVerifier jwtVerifier;
+
+    public StorefrontController(StorefrontService storefrontService, JwtVerifier jwtVerifier) {
+        this.storefrontService = storefrontService;
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    @GetMapping("/products")
+    public Mono<StorefrontPageDTO> getProducts(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        JwtVerifier.VerifiedToken user = authHeader != null && authHeader.startsWith("Bearer ")
+                ? jwtVerifier.verify(authHeader.substring(7))
+                : null;
+        return storefrontService.getProducts(request.getQueryParams(), user);
+    }
+}
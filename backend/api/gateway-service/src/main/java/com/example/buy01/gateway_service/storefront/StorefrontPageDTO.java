@@ -0,0 +1,32 @@
+package com.example.buy01.gateway_service.storefront;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// Réponse de /api/storefront/products : une page de produits (format de product-service, images
+// complétées si besoin), le curseur de la page suivante et l'utilisateur connecté (null sinon)
+public class StorefrontPageDTO {
+
+    private final List<JsonNode> products;
+    private final String nextCursor;
+    private final JsonNode currentUser;
+
+    public StorefrontPageDTO(List<JsonNode> products, String nextCursor, JsonNode currentUser) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+        this.currentUser = currentUser;
+    }
+
+    public List<JsonNode> getProducts() {
+        return products;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public JsonNode getCurrentUser() {
+        return currentUser;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.buy01.gateway_service.storefront;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import com.example.buy01.gateway_service.security.JwtVerifier;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import reactor.core.publisher.Mono;
+
+// Page du catalogue composée par la gateway : product-service et user-service sont appelés en
+// parallèle, puis media-service une seule fois (lot) pour les produits revenus avec
+// imagesResolved=false (enrichissement de product-service hors délai). Seule la page de produits est indispensable :
+// utilisateur et images manquants laissent la réponse partielle plutôt qu'en erreur
+@Component
+public class StorefrontService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorefrontService.class);
+
+    private static final String DEFAULT_LIMIT = "24";
+
+    private static final ParameterizedTypeReference<Map<String, JsonNode>> MEDIA_BY_PRODUCT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final String internalToken;
+    private final Duration productTimeout;
+    private final Duration secondaryTimeout;
+
+    public StorefrontService(WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+            @Value("${internal.token}") String internalToken,
+            @Value("${gateway.storefront.product-timeout:5s}") Duration productTimeout,
+            @Value("${gateway.storefront.secondary-timeout:800ms}") Duration secondaryTimeout) {
+        this.webClient = webClientBuilder.filter(loadBalancer).build();
+        this.internalToken = internalToken;
+        this.productTimeout = productTimeout;
+        this.secondaryTimeout = secondaryTimeout;
+    }
+
+    public Mono<StorefrontPageDTO> getProducts(MultiValueMap<String, String> query, JwtVerifier.VerifiedToken user) {
+        Mono<JsonNode> page = fetchProductPage(query).flatMap(this::fillMissingMedia);
+        Mono<Optional<JsonNode>> currentUser = user != null ? fetchCurrentUser(user) : Mono.just(Optional.empty());
+
+        return Mono.zip(page, currentUser).map(results -> {
+            JsonNode productPage = results.getT1();
+            List<JsonNode> products = new ArrayList<>();
+            productPage.path("items").forEach(products::add);
+            JsonNode nextCursor = productPage.path("nextCursor");
+            return new StorefrontPageDTO(products, nextCursor.isTextual() ? nextCursor.asText() : null,
+                    results.getT2().orElse(null));
+        });
+    }
+
+    // Page de /api/products/all, filtres et curseur transmis tels quels
+    private Mono<JsonNode> fetchProductPage(MultiValueMap<String, String> query) {
+        return webClient.get()
+                .uri(productPageUri(query))
+                .header("X-Gateway", "gateway-service")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(productTimeout)
+                .onErrorMap(WebClientResponseException.class,
+                        e -> new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString()))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Catalogue indisponible", e));
+    }
+
+    // Paramètres reçus décodés : ré-encodés ici, puis build(true) pour que l'URI ne soit pas
+    // relue comme un gabarit (un « { » dans q= serait pris pour une variable)
+    static URI productPageUri(MultiValueMap<String, String> query) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString("http://product-service/api/products/all");
+        query.forEach((name, values) -> values.forEach(value -> {
+            String encodedName = UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8);
+            if (value == null) {
+                uri.queryParam(encodedName);
+            } else {
+                uri.queryParam(encodedName, UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+            }
+        }));
+        if (!query.containsKey("limit")) {
+            uri.queryParam("limit", DEFAULT_LIMIT);
+        }
+        return uri.build(true).toUri();
+    }
+
+    private Mono<Optional<JsonNode>> fetchCurrentUser(JwtVerifier.VerifiedToken user) {
+        return webClient.get()
+                .uri("http://user-service/api/users/me")
+                .header("X-Gateway", "gateway-service")
+                .header("X-USER-EMAIL", user.getSubject())
+                .header("X-USER-ROLE", user.getRole())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(Optional::of)
+                .timeout(secondaryTimeout)
+                .onErrorResume(e -> {
+                    logger.debug("Utilisateur courant indisponible : {}", e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    // Un seul appel groupé à media-service pour tous les produits dont les images n'ont pas été
+    // résolues ; une liste vide avec imagesResolved=true est un produit réellement sans image
+    private Mono<JsonNode> fillMissingMedia(JsonNode page) {
+        List<ObjectNode> missing = new ArrayList<>();
+        page.path("items").forEach(item -> {
+            if (item.isObject() && !item.path("imagesResolved").asBoolean(true)) {
+                missing.add((ObjectNode) item);
+            }
+        });
+        if (missing.isEmpty()) {
+            return Mono.just(page);
+        }
+
+        List<String> productIds = missing.stream().map(item -> item.path("id").asText()).toList();
+        return webClient.post()
+                .uri("http://media-service/api/media/internal/get/batch")
+                .header("X-INTERNAL-TOKEN", internalToken)
+                .bodyValue(productIds)
+                .retrieve()
+                .bodyToMono(MEDIA_BY_PRODUCT)
+                .timeout(secondaryTimeout)
+                .map(mediaByProduct -> {
+                    for (ObjectNode item : missing) {
+                        JsonNode medias = mediaByProduct.get(item.path("id").asText());
+                        item.set("imageUrls", medias != null && medias.isArray() ? medias : item.arrayNode());
+                        item.put("imagesResolved", true);
+                    }
+                    return page;
+                })
+                .onErrorResume(e -> {
+                    logger.debug("Images indisponibles pour {} produits : {}", productIds.size(), e.getMessage());
+                    return Mono.just(page);
+                });
+    }
+}
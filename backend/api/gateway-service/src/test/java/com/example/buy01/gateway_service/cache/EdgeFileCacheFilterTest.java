@@ -0,0 +1,230 @@
+package com.example.buy01.gateway_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class EdgeFileCacheFilterTest {
+
+	@TempDir
+	Path directory;
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private EdgeFileCacheFilter filter(DataSize maxSize) {
+		EdgeFileCacheProperties properties = new EdgeFileCacheProperties();
+		properties.setDirectory(directory.toString());
+		properties.setPaths(List.of("/api/media/uploads/**"));
+		properties.setMaxSize(maxSize);
+		ServerProperties server = new ServerProperties();
+		server.getCompression().setEnabled(true);
+		return new EdgeFileCacheFilter(properties, new ResponseCompressor(server), new SimpleMeterRegistry());
+	}
+
+	// Service amont : 200, Content-Length exact ; customize ajuste la réponse avant l'écriture
+	private GatewayFilterChain upstream(byte[] body, MediaType contentType, Consumer<ServerHttpResponse> customize) {
+		return exchange -> Mono.defer(() -> {
+			upstreamCalls.incrementAndGet();
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(contentType);
+			response.getHeaders().setContentLength(body.length);
+			customize.accept(response);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+		});
+	}
+
+	private GatewayFilterChain upstream(byte[] body) {
+		return upstream(body, MediaType.IMAGE_PNG, response -> { });
+	}
+
+	private static MockServerWebExchange get(EdgeFileCacheFilter filter, GatewayFilterChain chain,
+			MockServerHttpRequest.BaseBuilder<?> request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		filter.filter(exchange, chain).block();
+		return exchange;
+	}
+
+	private static MockServerWebExchange get(EdgeFileCacheFilter filter, GatewayFilterChain chain, String path) {
+		return get(filter, chain, MockServerHttpRequest.get(path));
+	}
+
+	private static byte[] body(MockServerWebExchange exchange) {
+		return DataBufferUtils.join(exchange.getResponse().getBody()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return bytes;
+		}).defaultIfEmpty(new byte[0]).block();
+	}
+
+	private long cachedFiles() {
+		try (Stream<Path> entries = Files.list(directory)) {
+			return entries.filter(path -> path.getFileName().toString().endsWith(".bin")).count();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Indexation, éviction et compression se terminent hors du thread de la requête
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Condition non atteinte en 5 s");
+			}
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	private static byte[] bytes(int size, char value) {
+		byte[] bytes = new byte[size];
+		Arrays.fill(bytes, (byte) value);
+		return bytes;
+	}
+
+	// Premier GET relayé et recopié sur disque, le suivant servi depuis le disque sans appel amont
+	@Test
+	void missIsTeedToDiskThenServedAsHit() {
+		EdgeFileCacheFilter filter = filter(DataSize.ofMegabytes(1));
+		byte[] image = bytes(600, 'a');
+		GatewayFilterChain chain = upstream(image);
+
+		MockServerWebExchange miss = get(filter, chain, "/api/media/uploads/a.png");
+		assertEquals("MISS", miss.getResponse().getHeaders().getFirst("X-Cache"));
+		assertArrayEquals(image, body(miss));
+		await(() -> cachedFiles() == 1);
+
+		MockServerWebExchange hit = get(filter, chain, "/api/media/uploads/a.png");
+		assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals(600, hit.getResponse().getHeaders().getContentLength());
+		assertArrayEquals(image, body(hit));
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	// Content-Length faux (réponse tronquée) : la copie est jetée
+	@Test
+	void wrongContentLengthIsNotCached() {
+		EdgeFileCacheFilter filter = filter(DataSize.ofMegabytes(1));
+		GatewayFilterChain chain = upstream(bytes(50, 'a'), MediaType.IMAGE_PNG,
+				response -> response.getHeaders().setContentLength(100));
+
+		get(filter, chain, "/api/media/uploads/a.png");
+		get(filter, chain, "/api/media/uploads/a.png");
+
+		assertEquals(2, upstreamCalls.get());
+		await(() -> cachedFiles() == 0);
+	}
+
+	// Statut autre que 200 ou Set-Cookie : relayé sans copie
+	@Test
+	void nonOkStatusAndSetCookieAreNotCached() {
+		EdgeFileCacheFilter filter = filter(DataSize.ofMegabytes(1));
+		GatewayFilterChain notFound = upstream(bytes(10, 'a'), MediaType.IMAGE_PNG,
+				response -> response.setStatusCode(HttpStatus.NOT_FOUND));
+		GatewayFilterChain withCookie = upstream(bytes(10, 'a'), MediaType.IMAGE_PNG,
+				response -> response.getHeaders().add(HttpHeaders.SET_COOKIE, "session=1"));
+
+		get(filter, notFound, "/api/media/uploads/missing.png");
+		get(filter, notFound, "/api/media/uploads/missing.png");
+		get(filter, withCookie, "/api/media/uploads/cookie.png");
+		get(filter, withCookie, "/api/media/uploads/cookie.png");
+
+		assertEquals(4, upstreamCalls.get());
+		assertEquals(0, cachedFiles());
+	}
+
+	// Requête partielle : relayée telle quelle, jamais servie ni copiée par la gateway
+	@Test
+	void rangeRequestIsPassedThrough() {
+		EdgeFileCacheFilter filter = filter(DataSize.ofMegabytes(1));
+		GatewayFilterChain chain = upstream(bytes(600, 'a'));
+		get(filter, chain, "/api/media/uploads/a.png");
+		await(() -> cachedFiles() == 1);
+
+		MockServerWebExchange partial = get(filter, chain,
+				MockServerHttpRequest.get("/api/media/uploads/a.png").header(HttpHeaders.RANGE, "bytes=0-99"));
+
+		assertNull(partial.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	// Cache plein : l'entrée évincée perd aussi son fichier sur disque
+	@Test
+	void evictionDeletesTheFile() {
+		EdgeFileCacheFilter filter = filter(DataSize.ofBytes(1000));
+		get(filter, upstream(bytes(600, 'a')), "/api/media/uploads/a.png");
+		await(() -> cachedFiles() == 1);
+
+		get(filter, upstream(bytes(600, 'b')), "/api/media/uploads/b.png");
+
+		await(() -> cachedFiles() == 1);
+		MockServerWebExchange again = get(filter, upstream(bytes(600, 'a')), "/api/media/uploads/a.png");
+		MockServerWebExchange other = get(filter, upstream(bytes(600, 'b')), "/api/media/uploads/b.png");
+		assertTrue("MISS".equals(again.getResponse().getHeaders().getFirst("X-Cache"))
+				|| "MISS".equals(other.getResponse().getHeaders().getFirst("X-Cache")));
+		await(() -> cachedFiles() == 1);
+	}
+
+	// Variante gzip servie seulement au client qui accepte gzip ; Vary dans les deux cas
+	@Test
+	void gzipVariantOnlyWithAcceptEncoding() throws IOException {
+		EdgeFileCacheFilter filter = filter(DataSize.ofMegabytes(1));
+		byte[] json = ("[" + "{\"id\":\"1\"},".repeat(500) + "{}]").getBytes(StandardCharsets.UTF_8);
+		GatewayFilterChain chain = upstream(json, MediaType.APPLICATION_JSON, response -> { });
+		get(filter, chain, "/api/media/uploads/data.json");
+
+		await(() -> "gzip".equals(get(filter, chain, MockServerHttpRequest.get("/api/media/uploads/data.json")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")).getResponse().getHeaders()
+				.getFirst(HttpHeaders.CONTENT_ENCODING)));
+
+		MockServerWebExchange gzip = get(filter, chain, MockServerHttpRequest.get("/api/media/uploads/data.json")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body(gzip)))) {
+			assertArrayEquals(json, in.readAllBytes());
+		}
+
+		MockServerWebExchange plain = get(filter, chain, "/api/media/uploads/data.json");
+		assertFalse(plain.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, plain.getResponse().getHeaders().getFirst(HttpHeaders.VARY));
+		assertArrayEquals(json, body(plain));
+		assertEquals(1, upstreamCalls.get());
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.buy01.gateway_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.example.buy01.gateway_service.security.JwtVerifier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class RequestCoalescingFilterTest {
+
+	private static final String SECRET = "N5Dztk+QsQEOFEhZ9WZ7ZzRp7uuOoT/knKWvYVZLNS7vt8BjnfHxLjzjGdBfEBu3";
+
+	private static RequestCoalescingFilter filter() {
+		RequestCoalescingProperties properties = new RequestCoalescingProperties();
+		properties.setPaths(List.of("/api/products/**"));
+		return new RequestCoalescingFilter(properties, new JwtVerifier(SECRET, 3600000, 100),
+				new SimpleMeterRegistry(), new ResponseCompressor(new ServerProperties()));
+	}
+
+	// Service lent : répond après 200 ms, compte les appels reçus
+	private static GatewayFilterChain slowUpstream(AtomicInteger calls, HttpStatus status) {
+		return exchange -> Mono.delay(Duration.ofMillis(200)).then(Mono.defer(() -> {
+			calls.incrementAndGet();
+			exchange.getResponse().setStatusCode(status);
+			exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			byte[] body = "[{\"id\":\"1\"}]".getBytes(StandardCharsets.UTF_8);
+			return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+		}));
+	}
+
+	private static MockServerWebExchange get(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+	}
+
+	// 50 requêtes identiques simultanées : un seul appel amont, même corps pour toutes
+	@Test
+	void identicalRequestsShareOneUpstreamCall() {
+		RequestCoalescingFilter filter = filter();
+		AtomicInteger calls = new AtomicInteger();
+		GatewayFilterChain chain = slowUpstream(calls, HttpStatus.OK);
+
+		List<MockServerWebExchange> exchanges = Flux.range(0, 50).map(i -> get("/api/products/all")).collectList().block();
+		Flux.fromIterable(exchanges).flatMap(exchange -> filter.filter(exchange, chain)).blockLast();
+
+		assertEquals(1, calls.get());
+		for (MockServerWebExchange exchange : exchanges) {
+			assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+			assertEquals("[{\"id\":\"1\"}]", exchange.getResponse().getBodyAsString().block());
+		}
+	}
+
+	@Test
+	void differentQueriesAreNotMerged() {
+		RequestCoalescingFilter filter = filter();
+		AtomicInteger calls = new AtomicInteger();
+		GatewayFilterChain chain = slowUpstream(calls, HttpStatus.OK);
+
+		Flux.just(get("/api/products/all?limit=10"), get("/api/products/all?limit=20"))
+				.flatMap(exchange -> filter.filter(exchange, chain))
+				.blockLast();
+
+		assertEquals(2, calls.get());
+	}
+
+	// Une erreur amont n'est pas partagée : chaque requête en attente interroge le service
+	@Test
+	void errorsAreNotShared() {
+		RequestCoalescingFilter filter = filter();
+		AtomicInteger calls = new AtomicInteger();
+		GatewayFilterChain chain = slowUpstream(calls, HttpStatus.SERVICE_UNAVAILABLE);
+
+		Flux.range(0, 3).map(i -> get("/api/products/all"))
+				.flatMap(exchange -> filter.filter(exchange, chain))
+				.blockLast();
+
+		assertEquals(3, calls.get());
+	}
+}
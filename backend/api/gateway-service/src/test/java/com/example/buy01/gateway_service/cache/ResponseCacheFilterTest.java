@@ -0,0 +1,114 @@
+package com.example.buy01.gateway_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.buy01.gateway_service.security.PublicRouteMatcher;
+import com.example.buy01.gateway_service.security.PublicRoutesProperties;
+
+import reactor.core.publisher.Mono;
+
+class ResponseCacheFilterTest {
+
+	private static final String PRODUCT_ID = "64b7f0c2a1b2c3d4e5f60718";
+	private static final String MEDIA_ID = "64b7f0c2a1b2c3d4e5f60799";
+
+	private static ResponseCacheFilter filter() {
+		ResponseCacheProperties.Rule rule = new ResponseCacheProperties.Rule();
+		rule.setPaths(List.of("/api/products/**"));
+		ResponseCacheProperties properties = new ResponseCacheProperties();
+		properties.setRules(List.of(rule));
+		properties.setInvalidatePaths(List.of("/api/products/**", "/api/media/**"));
+
+		PublicRoutesProperties publicRoutes = new PublicRoutesProperties();
+		publicRoutes.setPublicPaths(List.of("/api/products/**"));
+
+		return new ResponseCacheFilter(properties, new PublicRouteMatcher(publicRoutes), WebClient.builder(),
+				mock(ReactorLoadBalancerExchangeFilterFunction.class), new ResponseCompressor(new ServerProperties()));
+	}
+
+	// Service qui répond 200 avec un corps JSON et compte les appels reçus
+	private static GatewayFilterChain upstream(AtomicInteger calls) {
+		return exchange -> Mono.defer(() -> {
+			calls.incrementAndGet();
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			byte[] body = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+			return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+		});
+	}
+
+	private static String get(ResponseCacheFilter filter, GatewayFilterChain chain, String path) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+		filter.filter(exchange, chain).block();
+		return exchange.getResponse().getHeaders().getFirst("X-Cache");
+	}
+
+	private static void send(ResponseCacheFilter filter, GatewayFilterChain chain, HttpMethod method, String path) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path).build());
+		filter.filter(exchange, chain).block();
+	}
+
+	// HEAD et OPTIONS ne modifient rien : le cache reste intact
+	@Test
+	void headAndOptionsDoNotInvalidate() {
+		ResponseCacheFilter filter = filter();
+		AtomicInteger calls = new AtomicInteger();
+		GatewayFilterChain chain = upstream(calls);
+
+		assertEquals("MISS", get(filter, chain, "/api/products/all"));
+		send(filter, chain, HttpMethod.HEAD, "/api/products/all");
+		send(filter, chain, HttpMethod.OPTIONS, "/api/products/" + PRODUCT_ID);
+
+		assertEquals("HIT", get(filter, chain, "/api/products/all"));
+	}
+
+	// Une écriture sur un produit retire son détail et les listes, pas le détail des autres produits
+	@Test
+	void productWriteInvalidatesItsDetailAndListings() {
+		ResponseCacheFilter filter = filter();
+		GatewayFilterChain chain = upstream(new AtomicInteger());
+		String other = "64b7f0c2a1b2c3d4e5f60700";
+
+		get(filter, chain, "/api/products/all");
+		get(filter, chain, "/api/products/" + PRODUCT_ID);
+		get(filter, chain, "/api/products/" + other);
+		send(filter, chain, HttpMethod.PATCH, "/api/products/update/" + PRODUCT_ID);
+
+		assertEquals("MISS", get(filter, chain, "/api/products/all"));
+		assertEquals("MISS", get(filter, chain, "/api/products/" + PRODUCT_ID));
+		assertEquals("HIT", get(filter, chain, "/api/products/" + other));
+	}
+
+	// /api/media/delete/{mediaId} : le produit visé vient de l'en-tête X-Product-Id de media-service
+	@Test
+	void mediaWriteInvalidatesProductFromResponseHeader() {
+		ResponseCacheFilter filter = filter();
+		GatewayFilterChain chain = upstream(new AtomicInteger());
+		GatewayFilterChain mediaService = exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			exchange.getResponse().getHeaders().set(ResponseCacheFilter.PRODUCT_ID_HEADER, PRODUCT_ID);
+			return exchange.getResponse().setComplete();
+		};
+
+		get(filter, chain, "/api/products/" + PRODUCT_ID);
+		send(filter, mediaService, HttpMethod.DELETE, "/api/media/delete/" + MEDIA_ID);
+
+		assertEquals("MISS", get(filter, chain, "/api/products/" + PRODUCT_ID));
+	}
+}
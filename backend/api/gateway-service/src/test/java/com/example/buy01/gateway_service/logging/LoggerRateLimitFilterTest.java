@@ -0,0 +1,90 @@
+package com.example.buy01.gateway_service.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class LoggerRateLimitFilterTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final LoggerContext context = new LoggerContext();
+
+	private LoggerRateLimitFilter filter(double defaultRate, String limits) {
+		LoggerRateLimitFilter filter = new LoggerRateLimitFilter(clock::get);
+		filter.setContext(context);
+		filter.setDefaultRate(defaultRate);
+		filter.setLimits(limits);
+		filter.start();
+		return filter;
+	}
+
+	private static FilterReply log(LoggerRateLimitFilter filter, Logger logger, Level level) {
+		return filter.decide(null, logger, level, "message {}", null, null);
+	}
+
+	// Au-delà du débit, les INFO du logger sont écartés jusqu'au remplissage du seau
+	@Test
+	void capsInfoPerLoggerWithinOneSecond() {
+		LoggerRateLimitFilter filter = filter(3, "");
+		Logger noisy = context.getLogger("com.example.Noisy");
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(FilterReply.NEUTRAL, log(filter, noisy, Level.INFO));
+		}
+		assertEquals(FilterReply.DENY, log(filter, noisy, Level.INFO));
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertEquals(FilterReply.NEUTRAL, log(filter, noisy, Level.INFO));
+	}
+
+	// Un logger bavard n'entame pas le débit des autres ; WARN et ERROR passent toujours
+	@Test
+	void otherLoggersAndWarningsAreNotCapped() {
+		LoggerRateLimitFilter filter = filter(1, "");
+		Logger noisy = context.getLogger("com.example.Noisy");
+		Logger quiet = context.getLogger("com.example.Quiet");
+
+		log(filter, noisy, Level.INFO);
+		assertEquals(FilterReply.DENY, log(filter, noisy, Level.INFO));
+		assertEquals(FilterReply.NEUTRAL, log(filter, quiet, Level.INFO));
+		assertEquals(FilterReply.NEUTRAL, log(filter, noisy, Level.WARN));
+		assertEquals(FilterReply.NEUTRAL, log(filter, noisy, Level.ERROR));
+	}
+
+	// Le préfixe le plus long l'emporte ; 0 = illimité
+	@Test
+	void longestPrefixSetsTheRate() {
+		LoggerRateLimitFilter filter = filter(100, "org.apache=1, org.apache.kafka.clients=0");
+		Logger kafka = context.getLogger("org.apache.kafka.clients.NetworkClient");
+		Logger http = context.getLogger("org.apache.hc.client5.Pool");
+
+		log(filter, http, Level.INFO);
+		assertEquals(FilterReply.DENY, log(filter, http, Level.INFO));
+		for (int i = 0; i < 500; i++) {
+			assertEquals(FilterReply.NEUTRAL, log(filter, kafka, Level.INFO));
+		}
+	}
+
+	// Un DEBUG sous le niveau du logger, ou un simple isDebugEnabled(), ne consomme pas de jeton
+	@Test
+	void disabledLevelsAndEnabledChecksDoNotConsumeTokens() {
+		LoggerRateLimitFilter filter = filter(1, "");
+		Logger logger = context.getLogger("com.example.Service");
+		logger.setLevel(Level.INFO);
+
+		for (int i = 0; i < 10; i++) {
+			log(filter, logger, Level.DEBUG);
+			filter.decide(null, logger, Level.INFO, null, null, null);
+		}
+
+		assertEquals(FilterReply.NEUTRAL, log(filter, logger, Level.INFO));
+	}
+}
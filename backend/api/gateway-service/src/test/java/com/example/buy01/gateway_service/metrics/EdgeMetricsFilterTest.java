@@ -0,0 +1,134 @@
+package com.example.buy01.gateway_service.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class EdgeMetricsFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final EdgeMetricsFilter filter = new EdgeMetricsFilter(meterRegistry, new PhaseTimers(meterRegistry));
+
+	private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+				.id("products")
+				.uri(URI.create("lb://product-service"))
+				.predicate(candidate -> true)
+				.build());
+		return exchange;
+	}
+
+	private static MockServerWebExchange exchange() {
+		return exchange(MockServerHttpRequest.get("/api/products").build());
+	}
+
+	private static Mono<Void> write(ServerHttpResponse response, String body) {
+		response.setStatusCode(HttpStatus.OK);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+	}
+
+	private double inFlight() {
+		return meterRegistry.get("gateway.inflight").tag("route", "products").gauge().value();
+	}
+
+	private Timer phase(String phase) {
+		return meterRegistry.find("gateway.phase").tag("phase", phase).tag("route", "products").timer();
+	}
+
+	@Test
+	void inFlightReturnsToZeroAfterCompletion() {
+		AtomicReference<Double> during = new AtomicReference<>();
+		GatewayFilterChain chain = exchange -> Mono.defer(() -> {
+			during.set(inFlight());
+			return write(exchange.getResponse(), "ok");
+		});
+
+		filter.filter(exchange(), chain).block();
+
+		assertEquals(1.0, during.get());
+		assertEquals(0.0, inFlight());
+	}
+
+	@Test
+	void inFlightReturnsToZeroAfterError() {
+		AtomicReference<Double> during = new AtomicReference<>();
+		GatewayFilterChain chain = exchange -> Mono.defer(() -> {
+			during.set(inFlight());
+			return Mono.error(new IllegalStateException("service indisponible"));
+		});
+
+		assertThrows(IllegalStateException.class, () -> filter.filter(exchange(), chain).block());
+
+		assertEquals(1.0, during.get());
+		assertEquals(0.0, inFlight());
+	}
+
+	@Test
+	void countsRequestAndResponseBytes() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/api/products").body("{\"name\":\"chaise\"}"));
+		// Le service lit tout le corps de la requête avant de répondre
+		GatewayFilterChain chain = forwarded -> DataBufferUtils.join(forwarded.getRequest().getBody())
+				.doOnNext(DataBufferUtils::release)
+				.then(write(forwarded.getResponse(), "created:123"));
+
+		filter.filter(exchange, chain).block();
+
+		DistributionSummary in = meterRegistry.get("gateway.bytes").tags("route", "products", "direction", "in").summary();
+		DistributionSummary out = meterRegistry.get("gateway.bytes").tags("route", "products", "direction", "out").summary();
+		assertEquals(1, in.count());
+		assertEquals(17.0, in.totalAmount());
+		assertEquals(1, out.count());
+		assertEquals(11.0, out.totalAmount());
+	}
+
+	@Test
+	void splitsInternalAndUpstreamTimeAroundUpstreamStart() {
+		// 30 ms dans la gateway, puis 60 ms côté service jusqu'aux en-têtes
+		GatewayFilterChain chain = exchange -> Mono.delay(Duration.ofMillis(30))
+				.doOnNext(tick -> exchange.getAttributes().put(UpstreamTimingFilter.UPSTREAM_START_ATTRIBUTE, System.nanoTime()))
+				.then(Mono.delay(Duration.ofMillis(60)))
+				.then(Mono.defer(() -> write(exchange.getResponse(), "ok")));
+
+		filter.filter(exchange(), chain).block();
+
+		Timer internal = phase(PhaseTimers.INTERNAL);
+		Timer upstream = phase(PhaseTimers.UPSTREAM);
+		assertEquals(1, internal.count());
+		assertEquals(1, upstream.count());
+		assertTrue(internal.totalTime(TimeUnit.MILLISECONDS) >= 30);
+		assertTrue(internal.totalTime(TimeUnit.MILLISECONDS) < 60);
+		assertTrue(upstream.totalTime(TimeUnit.MILLISECONDS) >= 60);
+	}
+
+	@Test
+	void responseProducedByGatewayCountsAsInternalOnly() {
+		// Pas de passage par UpstreamTimingFilter : cache, refus ou fallback
+		filter.filter(exchange(), exchange -> write(exchange.getResponse(), "cache")).block();
+
+		assertEquals(1, phase(PhaseTimers.INTERNAL).count());
+		assertNull(phase(PhaseTimers.UPSTREAM));
+	}
+}
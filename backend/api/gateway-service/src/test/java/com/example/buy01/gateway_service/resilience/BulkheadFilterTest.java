@@ -0,0 +1,90 @@
+package com.example.buy01.gateway_service.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class BulkheadFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private GatewayFilter bulkhead(int maxConcurrentCalls) {
+		ResilienceProperties.Bulkhead settings = new ResilienceProperties.Bulkhead();
+		settings.setMaxConcurrentCalls(maxConcurrentCalls);
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.setBulkheads(Map.of("product-service", settings));
+
+		BulkheadFilter.Config config = new BulkheadFilter.Config();
+		config.setName("product-service");
+		return new BulkheadFilter(properties, meterRegistry).apply(config);
+	}
+
+	private static MockServerWebExchange exchange() {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/all").build());
+	}
+
+	private double active() {
+		return meterRegistry.get("gateway.bulkhead.active").gauge().value();
+	}
+
+	// Service qui ne répond jamais : chaque appel occupe sa place jusqu'à annulation
+	private static final GatewayFilterChain HANGING = exchange -> Mono.never();
+
+	// Au-delà de max-concurrent-calls, refus immédiat sans relayer la requête
+	@Test
+	void rejectsCallsAboveMaxConcurrentCalls() {
+		GatewayFilter filter = bulkhead(2);
+		Disposable first = filter.filter(exchange(), HANGING).subscribe();
+		Disposable second = filter.filter(exchange(), HANGING).subscribe();
+
+		AtomicInteger relayed = new AtomicInteger();
+		GatewayFilterChain counting = exchange -> Mono.fromRunnable(relayed::incrementAndGet);
+		BulkheadFullException rejected = assertThrows(BulkheadFullException.class,
+				() -> filter.filter(exchange(), counting).block());
+
+		assertEquals(0, relayed.get());
+		assertEquals(Duration.ofSeconds(1), rejected.getRetryAfter());
+		assertEquals(2, active());
+		assertEquals(1, meterRegistry.get("gateway.bulkhead.rejected").counter().count());
+		first.dispose();
+		second.dispose();
+	}
+
+	// Client parti (annulation) : la place est rendue
+	@Test
+	void releasesPermitOnCancel() {
+		GatewayFilter filter = bulkhead(1);
+		Disposable call = filter.filter(exchange(), HANGING).subscribe();
+		assertEquals(1, active());
+
+		call.dispose();
+
+		assertEquals(0, active());
+		filter.filter(exchange(), exchange -> Mono.empty()).block();
+	}
+
+	// Délai dépassé en amont (timeout du circuit breaker) : la place est rendue
+	@Test
+	void releasesPermitOnTimeout() {
+		GatewayFilter filter = bulkhead(1);
+
+		assertThrows(RuntimeException.class,
+				() -> filter.filter(exchange(), HANGING).timeout(Duration.ofMillis(50)).block());
+
+		assertEquals(0, active());
+		filter.filter(exchange(), exchange -> Mono.empty()).block();
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.buy01.gateway_service.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.example.buy01.gateway_service.cache.CachedResponse;
+import com.example.buy01.gateway_service.cache.ResponseCacheFilter;
+import com.example.buy01.gateway_service.cache.ResponseCompressor;
+
+class FallbackControllerTest {
+
+	private final ResponseCacheFilter responseCache = mock(ResponseCacheFilter.class);
+
+	private FallbackController controller() {
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.setFallbackRetryAfter(Duration.ofSeconds(15));
+		return new FallbackController(responseCache, new ResponseCompressor(new ServerProperties()), properties);
+	}
+
+	private static MockServerWebExchange failed(HttpMethod method, Throwable cause) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.method(method, "/api/products/all").build());
+		if (cause != null) {
+			exchange.getAttributes().put(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, cause);
+		}
+		return exchange;
+	}
+
+	// Entrée hors fenêtre stale-while-revalidate, encore gardée pour stale-if-error
+	private static CachedResponse staleEntry() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return new CachedResponse(200, headers, "[{\"id\":\"1\"}]".getBytes(StandardCharsets.UTF_8),
+				0, 0, Duration.ofMinutes(10).toNanos());
+	}
+
+	// GET en cache : la dernière réponse connue est rejouée, même périmée
+	@Test
+	void cachedGetIsReplayedAsStaleIfError() {
+		when(responseCache.fallbackFor(any())).thenReturn(staleEntry());
+		MockServerWebExchange exchange = failed(HttpMethod.GET, new RuntimeException("500 from upstream"));
+
+		controller().fallback(exchange).block();
+
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		assertEquals("STALE-IF-ERROR", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals("[{\"id\":\"1\"}]", exchange.getResponse().getBodyAsString().block());
+	}
+
+	// Une écriture n'est jamais rejouée depuis le cache
+	@Test
+	void writeIsNotReplayedFromCache() {
+		when(responseCache.fallbackFor(any())).thenReturn(staleEntry());
+		MockServerWebExchange exchange = failed(HttpMethod.POST, new RuntimeException("500 from upstream"));
+
+		controller().fallback(exchange).block();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+	}
+
+	// Délai dépassé (même enveloppé) : 504 avec le Retry-After configuré
+	@Test
+	void timeoutGivesGatewayTimeout() {
+		MockServerWebExchange exchange = failed(HttpMethod.GET, new IllegalStateException(new TimeoutException()));
+
+		controller().fallback(exchange).block();
+
+		assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+		assertEquals("15", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+	}
+
+	// Circuit ouvert ou erreur du service : 503 avec le Retry-After configuré
+	@Test
+	void openCircuitGivesServiceUnavailable() {
+		MockServerWebExchange exchange = failed(HttpMethod.GET, null);
+
+		controller().fallback(exchange).block();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+		assertEquals("15", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+	}
+
+	// Refus du bulkhead : 503 avec le Retry-After propre au refus
+	@Test
+	void bulkheadRejectionUsesItsOwnRetryAfter() {
+		MockServerWebExchange exchange = failed(HttpMethod.GET, new BulkheadFullException("product-service"));
+
+		controller().fallback(exchange).block();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+		assertEquals("1", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+	}
+}
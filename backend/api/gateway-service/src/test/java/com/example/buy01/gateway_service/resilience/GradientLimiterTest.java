@@ -0,0 +1,92 @@
+package com.example.buy01.gateway_service.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class GradientLimiterTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private GradientLimiter limiter() {
+		ResilienceProperties.AdaptiveLimit settings = new ResilienceProperties.AdaptiveLimit();
+		settings.setInitialLimit(20);
+		settings.setMinLimit(5);
+		settings.setMaxLimit(500);
+		return new GradientLimiter(settings, clock::get);
+	}
+
+	// Un tour : autant de requêtes que la limite le permet, toutes servies en rttMillis
+	private void round(GradientLimiter limiter, long rttMillis) {
+		List<GradientLimiter.Permit> permits = new ArrayList<>();
+		GradientLimiter.Permit permit;
+		while ((permit = limiter.tryAcquire()) != null) {
+			permits.add(permit);
+		}
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+		for (GradientLimiter.Permit admitted : permits) {
+			admitted.onResponse(false);
+			admitted.release();
+		}
+	}
+
+	@Test
+	void rejectsBeyondTheLimit() {
+		GradientLimiter limiter = limiter();
+		for (int i = 0; i < 20; i++) {
+			limiter.tryAcquire();
+		}
+
+		assertNull(limiter.tryAcquire());
+		assertEquals(20, limiter.getInFlight());
+	}
+
+	// Latence stable sous pleine charge : la limite monte pour chercher le débit maximal
+	@Test
+	void limitGrowsWhileLatencyStaysFlat() {
+		GradientLimiter limiter = limiter();
+		for (int i = 0; i < 30; i++) {
+			round(limiter, 10);
+		}
+
+		assertTrue(limiter.getLimit() > 40, "limite : " + limiter.getLimit());
+	}
+
+	// La latence décuple (service saturé) : la limite redescend vite
+	@Test
+	void limitShrinksWhenLatencyRises() {
+		GradientLimiter limiter = limiter();
+		for (int i = 0; i < 30; i++) {
+			round(limiter, 10);
+		}
+		int beforeSpike = limiter.getLimit();
+
+		for (int i = 0; i < 10; i++) {
+			round(limiter, 100);
+		}
+
+		assertTrue(limiter.getLimit() < beforeSpike / 2,
+				"avant : " + beforeSpike + ", après : " + limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void errorsBackOffTheLimit() {
+		GradientLimiter limiter = limiter();
+		GradientLimiter.Permit permit = limiter.tryAcquire();
+
+		permit.onResponse(true);
+		permit.release();
+		permit.release();
+
+		assertEquals(18, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+}
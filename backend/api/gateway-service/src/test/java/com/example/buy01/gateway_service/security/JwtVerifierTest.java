@@ -0,0 +1,109 @@
+package com.example.buy01.gateway_service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+class JwtVerifierTest {
+
+	private static final String SECRET = "N5Dztk+QsQEOFEhZ9WZ7ZzRp7uuOoT/knKWvYVZLNS7vt8BjnfHxLjzjGdBfEBu3";
+	private static final SecretKey KEY = JwtVerifier.key(SECRET);
+
+	private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+	// Parser réel sur la même horloge que le cache, espionné pour compter les vérifications
+	private final JwtParser parser = spy(Jwts.parserBuilder()
+			.setSigningKey(KEY)
+			.setClock(() -> new Date(clock.get()))
+			.build());
+
+	private JwtVerifier verifier(long maxSize) {
+		return new JwtVerifier(parser, 3600000, maxSize, clock::get);
+	}
+
+	private String token(String subject, long ttlMillis) {
+		return Jwts.builder()
+				.setSubject(subject)
+				.claim("role", "CLIENT")
+				.setIssuedAt(new Date(clock.get()))
+				.setExpiration(new Date(clock.get() + ttlMillis))
+				.signWith(KEY, SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	// Même token une seconde fois : servi par le cache, sans nouvelle vérification
+	@Test
+	void repeatedTokenIsNotParsedAgain() {
+		JwtVerifier verifier = verifier(100);
+		String token = token("alice@example.com", 60000);
+
+		JwtVerifier.VerifiedToken first = verifier.verify(token);
+		JwtVerifier.VerifiedToken second = verifier.verify(token);
+
+		assertEquals("alice@example.com", second.getSubject());
+		assertEquals("CLIENT", second.getRole());
+		assertEquals(first, second);
+		verify(parser, times(1)).parseClaimsJws(anyString());
+	}
+
+	// Passé l'exp du token, l'entrée n'est plus servie et le token est refusé
+	@Test
+	void entryIsNotServedAfterExpiration() {
+		JwtVerifier verifier = verifier(100);
+		String token = token("alice@example.com", 60000);
+		assertNotNull(verifier.verify(token));
+
+		clock.addAndGet(TimeUnit.SECONDS.toMillis(61));
+
+		assertNull(verifier.verify(token));
+		verify(parser, times(2)).parseClaimsJws(anyString());
+	}
+
+	// Charge utile modifiée (signature d'origine gardée) : autre clé de cache, vérification, refus
+	@Test
+	void tamperedTokenMissesCacheAndFails() {
+		JwtVerifier verifier = verifier(100);
+		String token = token("alice@example.com", 60000);
+		assertNotNull(verifier.verify(token));
+
+		String[] parts = token.split("\\.");
+		String forgedClaims = "{\"sub\":\"alice@example.com\",\"role\":\"ADMIN\",\"exp\":"
+				+ (clock.get() / 1000 + 60) + "}";
+		String forged = parts[0] + "."
+				+ Base64.getUrlEncoder().withoutPadding().encodeToString(forgedClaims.getBytes(StandardCharsets.UTF_8))
+				+ "." + parts[2];
+
+		assertNull(verifier.verify(forged));
+		verify(parser, times(2)).parseClaimsJws(anyString());
+	}
+
+	// Plus de tokens distincts que max-size : le cache reste borné
+	@Test
+	void cacheStaysBounded() {
+		JwtVerifier verifier = verifier(5);
+
+		for (int i = 0; i < 50; i++) {
+			assertNotNull(verifier.verify(token("user" + i + "@example.com", 60000)));
+		}
+
+		assertTrue(verifier.cachedTokens() <= 5);
+	}
+}
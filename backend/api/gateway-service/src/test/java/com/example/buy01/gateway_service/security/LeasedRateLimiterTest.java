@@ -0,0 +1,141 @@
+package com.example.buy01.gateway_service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class LeasedRateLimiterTest {
+
+	private static RateLimitProperties.Policy policy(long capacity, long leaseSize) {
+		RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+		policy.setCapacity(capacity);
+		policy.setRefillTokens(capacity);
+		policy.setRefillPeriod(Duration.ofMinutes(1));
+		policy.setLeaseSize(leaseSize);
+		policy.setLeaseTtl(Duration.ofSeconds(5));
+		return policy;
+	}
+
+	private static int accepted(LeasedRateLimiter limiter, int requests) {
+		int accepted = 0;
+		for (int i = 0; i < requests; i++) {
+			if (limiter.tryConsume().block() == 0L) {
+				accepted++;
+			}
+		}
+		return accepted;
+	}
+
+	// Deux répliques partagent le même budget : 5 requêtes au total, pas 5 chacune
+	@Test
+	void replicasShareTheBudget() {
+		RateLimitStore store = new InMemoryRateLimitStore(new RateLimitProperties());
+		RateLimitProperties.Policy login = policy(5, 1);
+		LeasedRateLimiter replicaA = new LeasedRateLimiter("login|ip:1.2.3.4", login, store);
+		LeasedRateLimiter replicaB = new LeasedRateLimiter("login|ip:1.2.3.4", login, store);
+
+		int total = accepted(replicaA, 3) + accepted(replicaB, 5) + accepted(replicaA, 5);
+
+		assertEquals(5, total);
+	}
+
+	// Avec des baux de 5 jetons, une réplique ne sollicite le store qu'une fois pour 5 requêtes
+	@Test
+	void leasedTokensAvoidStoreRoundTrips() {
+		CountingStore store = new CountingStore(new InMemoryRateLimitStore(new RateLimitProperties()));
+		LeasedRateLimiter limiter = new LeasedRateLimiter("writes|user:a@b.c", policy(60, 5), store);
+
+		assertEquals(20, accepted(limiter, 20));
+		assertEquals(4, store.acquires.get());
+	}
+
+	// Un client lent (une requête toutes les 6 s, baux de 5 s) garde tout son budget :
+	// les jetons non utilisés d'un bail expiré retournent au store
+	@Test
+	void unusedLeasedTokensAreReturnedOnExpiry() {
+		RateLimitStore store = new InMemoryRateLimitStore(new RateLimitProperties());
+		long[] now = { 0 };
+		LeasedRateLimiter limiter = new LeasedRateLimiter("writes|user:a@b.c", policy(60, 5), store, () -> now[0]);
+
+		for (int i = 0; i < 12; i++) {
+			assertEquals(0L, limiter.tryConsume().block());
+			now[0] += Duration.ofSeconds(6).toNanos();
+		}
+
+		// 13 jetons utilisés, 4 encore loués par le bail en cours : rien d'autre n'est perdu
+		limiter.tryConsume().block();
+		assertEquals(60 - 13 - 4, store.acquire("writes|user:a@b.c", policy(60, 5), 60).block().getGranted());
+	}
+
+	// Requêtes simultanées sans jeton local : un seul appel au store, le bail obtenu les sert toutes
+	@Test
+	void concurrentMissesShareOneLeaseAcquisition() {
+		Sinks.One<RateLimitStore.Grant> grant = Sinks.one();
+		CountingStore store = new CountingStore(new InMemoryRateLimitStore(new RateLimitProperties())) {
+			@Override
+			public Mono<RateLimitStore.Grant> acquire(String key, RateLimitProperties.Policy policy, long requested) {
+				acquires.incrementAndGet();
+				return grant.asMono();
+			}
+		};
+		LeasedRateLimiter limiter = new LeasedRateLimiter("writes|user:a@b.c", policy(60, 5), store);
+
+		List<Long> results = new CopyOnWriteArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			limiter.tryConsume().subscribe(results::add);
+		}
+		grant.tryEmitValue(new RateLimitStore.Grant(5, 0));
+
+		assertEquals(List.of(0L, 0L, 0L), results);
+		assertEquals(1, store.acquires.get());
+	}
+
+	@Test
+	void distributedModeWithoutSharedStoreFailsAtStartup() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setMode(RateLimitProperties.Mode.DISTRIBUTED);
+
+		assertThrows(IllegalStateException.class, () -> new RateLimitStoreConfig().inMemoryRateLimitStore(properties));
+	}
+
+	private static class CountingStore implements RateLimitStore {
+
+		final AtomicInteger acquires = new AtomicInteger();
+		private final RateLimitStore delegate;
+
+		CountingStore(RateLimitStore delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Mono<Grant> acquire(String key, RateLimitProperties.Policy policy, long requested) {
+			acquires.incrementAndGet();
+			return delegate.acquire(key, policy, requested);
+		}
+
+		@Override
+		public Mono<Void> release(String key, RateLimitProperties.Policy policy, long tokens) {
+			return delegate.release(key, policy, tokens);
+		}
+	}
+
+	@Test
+	void rejectedRequestReportsWaitUntilRefill() {
+		RateLimitStore store = new InMemoryRateLimitStore(new RateLimitProperties());
+		LeasedRateLimiter limiter = new LeasedRateLimiter("login|ip:1.2.3.4", policy(1, 1), store);
+
+		assertEquals(0L, limiter.tryConsume().block());
+		long nanosToWait = limiter.tryConsume().block();
+		assertTrue(nanosToWait > 0 && nanosToWait <= Duration.ofMinutes(1).toNanos());
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.buy01.gateway_service.security;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// Mesure hors suite unitaire (tag perf, exclu par défaut) : dépend du JIT et du GC.
+// mvn test -Dgroups=perf -DexcludedGroups=none
+@Tag("perf")
+class PublicRouteMatcherBenchmarkTest {
+
+	private final PublicRouteMatcher matcher = new PublicRouteMatcher(
+			List.of("/", "/api/auth/**", "/api/products/*", "/swagger-ui.html", "/swagger-ui/**", "/avatars/**"),
+			List.of("/api/products/create", "/api/products/myproducts"));
+
+	// Coût par requête : quelques dizaines de ns, aucune allocation après le warm-up
+	@Test
+	void isPublicDoesNotAllocate() {
+		String[] paths = {
+				"/api/products/64b7f0c2a1b2c3d4e5f60701",
+				"/api/products/myproducts",
+				"/api/auth/login",
+				"/api/users/me",
+				"/swagger-ui/index.html",
+				"/avatars/64b7f0c2a1b2c3d4e5f60701.png" };
+
+		int hits = 0;
+		for (int i = 0; i < 500_000; i++) {
+			hits += matcher.isPublic(paths[i % paths.length]) ? 1 : 0;
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		int iterations = 2_000_000;
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			hits += matcher.isPublic(paths[i % paths.length]) ? 1 : 0;
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		assertTrue(allocated < 64 * 1024, String.format(
+				"isPublic ne doit pas allouer : %d octets pour %d requêtes (%d publiques, %.1f ns/requête)",
+				allocated, iterations, hits, (double) elapsed / iterations));
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.buy01.gateway_service.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PublicRouteMatcherTest {
+
+	private final PublicRouteMatcher matcher = new PublicRouteMatcher(
+			List.of("/", "/api/auth/**", "/api/products/*", "/swagger-ui.html", "/swagger-ui/**", "/avatars/**"),
+			List.of("/api/products/create", "/api/products/myproducts"));
+
+	@Test
+	void publicRoutes() {
+		assertTrue(matcher.isPublic("/"));
+		assertTrue(matcher.isPublic("/api/auth/login"));
+		assertTrue(matcher.isPublic("/api/auth/"));
+		assertTrue(matcher.isPublic("/api/products/all"));
+		assertTrue(matcher.isPublic("/api/products/search"));
+		assertTrue(matcher.isPublic("/api/products/64b7f0c2a1b2c3d4e5f60701"));
+		assertTrue(matcher.isPublic("/swagger-ui.html"));
+		assertTrue(matcher.isPublic("/swagger-ui/index.html"));
+		assertTrue(matcher.isPublic("/avatars/a/b/c.png"));
+	}
+
+	@Test
+	void protectedRoutes() {
+		assertFalse(matcher.isPublic("/api/products/create"));
+		assertFalse(matcher.isPublic("/api/products/myproducts"));
+		assertFalse(matcher.isPublic("/api/products/update/64b7f0c2a1b2c3d4e5f60701"));
+		assertFalse(matcher.isPublic("/api/products"));
+		assertFalse(matcher.isPublic("/api/users/me"));
+		assertFalse(matcher.isPublic("/swagger-uix"));
+	}
+
+	@Test
+	void doubleWildcardMustEndPattern() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new PublicRouteMatcher(List.of("/api/**/x"), List.of()));
+	}
+}
@@ -0,0 +1,159 @@
+package com.example.buy01.gateway_service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.example.buy01.gateway_service.metrics.PhaseTimers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RateLimiterFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicLong ticker = new AtomicLong();
+	private final RateLimitProperties properties = new RateLimitProperties();
+	private final AtomicInteger relayed = new AtomicInteger();
+	private final GatewayFilterChain upstream = exchange -> Mono.fromRunnable(relayed::incrementAndGet);
+
+	// Politique "writes" : 1 requête par heure, limitée aux POST sur /api/products/**
+	private RateLimiterFilter factory(RateLimitProperties.KeyType key) {
+		RateLimitProperties.Policy writes = new RateLimitProperties.Policy();
+		writes.setKey(key);
+		writes.setCapacity(1);
+		writes.setRefillTokens(1);
+		writes.setRefillPeriod(Duration.ofHours(1));
+		writes.setMethods(List.of("POST"));
+		writes.setPaths(List.of("/api/products/**"));
+		properties.setPolicies(Map.of("writes", writes));
+		return new RateLimiterFilter(properties, meterRegistry, new InMemoryRateLimitStore(properties),
+				new PhaseTimers(meterRegistry), ticker::get);
+	}
+
+	private static GatewayFilter apply(RateLimiterFilter factory, String policy) {
+		RateLimiterFilter.Config config = new RateLimiterFilter.Config();
+		config.setPolicy(policy);
+		return factory.apply(config);
+	}
+
+	private static MockServerWebExchange request(HttpMethod method, String path, String ip, String principal) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path)
+				.header("X-Forwarded-For", ip)
+				.build());
+		if (principal != null) {
+			exchange.getAttributes().put(JwtAuthFilter.PRINCIPAL_ATTRIBUTE, principal);
+		}
+		return exchange;
+	}
+
+	private HttpStatus send(GatewayFilter filter, MockServerWebExchange exchange) {
+		filter.filter(exchange, upstream).block();
+		return (HttpStatus) exchange.getResponse().getStatusCode();
+	}
+
+	// Au-delà de la capacité : 429 avec Retry-After, la requête n'est pas relayée
+	@Test
+	void rejectsWithRetryAfterOnceBudgetIsSpent() {
+		GatewayFilter filter = apply(factory(RateLimitProperties.KeyType.IP), "writes");
+
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null)));
+		MockServerWebExchange rejected = request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null);
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, send(filter, rejected));
+		long retryAfter = Long.parseLong(rejected.getResponse().getHeaders().getFirst("Retry-After"));
+		assertTrue(retryAfter >= 1 && retryAfter <= 3600);
+		assertEquals(1, relayed.get());
+		assertEquals(1, meterRegistry.get("gateway.ratelimit.rejected").tag("policy", "writes").counter().count());
+	}
+
+	// Méthode ou chemin hors politique : jamais limité
+	@Test
+	void policyAppliesOnlyToItsMethodsAndPaths() {
+		GatewayFilter filter = apply(factory(RateLimitProperties.KeyType.IP), "writes");
+
+		for (int i = 0; i < 5; i++) {
+			send(filter, request(HttpMethod.GET, "/api/products/all", "1.2.3.4", null));
+			send(filter, request(HttpMethod.POST, "/api/users/login", "1.2.3.4", null));
+		}
+
+		assertEquals(10, relayed.get());
+	}
+
+	// Clé PRINCIPAL : un budget par utilisateur, quelle que soit l'IP ; sans utilisateur, l'IP
+	@Test
+	void principalKeyTakesPrecedenceOverIp() {
+		GatewayFilter filter = apply(factory(RateLimitProperties.KeyType.PRINCIPAL), "writes");
+
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", "alice@example.com")));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+				send(filter, request(HttpMethod.POST, "/api/products/create", "5.6.7.8", "alice@example.com")));
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", "bob@example.com")));
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null)));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+				send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null)));
+	}
+
+	// Clé IP : deux IPs ont chacune leur budget, même utilisateur
+	@Test
+	void ipKeyIgnoresPrincipal() {
+		GatewayFilter filter = apply(factory(RateLimitProperties.KeyType.IP), "writes");
+
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", "alice@example.com")));
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "5.6.7.8", "alice@example.com")));
+	}
+
+	// Politique absente de la configuration : erreur dès la construction de la route
+	@Test
+	void unknownPolicyFailsAtApply() {
+		RateLimiterFilter factory = factory(RateLimitProperties.KeyType.IP);
+
+		assertThrows(IllegalArgumentException.class, () -> apply(factory, "missing"));
+	}
+
+	// Nombre de buckets borné par max-buckets
+	@Test
+	void bucketStoreIsSizeBounded() {
+		properties.setMaxBuckets(3);
+		RateLimiterFilter factory = factory(RateLimitProperties.KeyType.IP);
+		GatewayFilter filter = apply(factory, "writes");
+
+		for (int i = 0; i < 20; i++) {
+			send(filter, request(HttpMethod.POST, "/api/products/create", "10.0.0." + i, null));
+		}
+
+		assertTrue(factory.bucketCount() <= 3);
+	}
+
+	// Bucket inactif au-delà de idle-expiry : évincé, le client repart d'un bucket plein
+	@Test
+	void idleBucketsAreEvicted() {
+		properties.setIdleExpiry(Duration.ofMinutes(10));
+		RateLimiterFilter factory = factory(RateLimitProperties.KeyType.IP);
+		GatewayFilter filter = apply(factory, "writes");
+
+		send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+				send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null)));
+
+		ticker.addAndGet(Duration.ofMinutes(11).toNanos());
+
+		assertEquals(0, factory.bucketCount());
+		assertNull(send(filter, request(HttpMethod.POST, "/api/products/create", "1.2.3.4", null)));
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.buy01.gateway_service.storefront;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import reactor.core.publisher.Mono;
+
+class StorefrontServiceTest {
+
+	private static final String PRODUCT_PAGE = "{\"items\":["
+			+ "{\"id\":\"p1\",\"imageUrls\":[],\"imagesResolved\":false},"
+			+ "{\"id\":\"p2\",\"imageUrls\":[],\"imagesResolved\":true}"
+			+ "],\"nextCursor\":null}";
+
+	private static final String MEDIA_BATCH = "{\"p1\":[{\"id\":\"m1\",\"imagePath\":\"/img/m1.png\",\"productId\":\"p1\"}]}";
+
+	// Services simulés : product-service et media-service, chaque URL appelée est enregistrée
+	private static StorefrontService service(List<URI> calls) {
+		ExchangeFunction upstream = request -> {
+			calls.add(request.url());
+			String body = request.url().getPath().startsWith("/api/media") ? MEDIA_BATCH : PRODUCT_PAGE;
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+					.body(body)
+					.build());
+		};
+		// Load balancer transparent : les URL arrivent telles quelles aux services simulés
+		ReactorLoadBalancerExchangeFilterFunction loadBalancer = mock(ReactorLoadBalancerExchangeFilterFunction.class,
+				CALLS_REAL_METHODS);
+		doAnswer(invocation -> invocation.<ExchangeFunction>getArgument(1).exchange(invocation.getArgument(0)))
+				.when(loadBalancer).filter(any(ClientRequest.class), any(ExchangeFunction.class));
+		return new StorefrontService(WebClient.builder().exchangeFunction(upstream), loadBalancer, "token",
+				Duration.ofSeconds(1), Duration.ofSeconds(1));
+	}
+
+	// Seuls les produits marqués imagesResolved=false sont complétés par l'appel groupé à media-service
+	@Test
+	void unresolvedImagesAreBackfilledFromMediaService() {
+		List<URI> calls = new CopyOnWriteArrayList<>();
+
+		StorefrontPageDTO page = service(calls).getProducts(new LinkedMultiValueMap<>(), null).block();
+
+		JsonNode resolved = page.getProducts().get(0);
+		assertEquals("m1", resolved.path("imageUrls").get(0).path("id").asText());
+		assertTrue(resolved.path("imagesResolved").asBoolean());
+		assertEquals(0, page.getProducts().get(1).path("imageUrls").size());
+		assertEquals(2, calls.size());
+		assertEquals("/api/media/internal/get/batch", calls.get(1).getPath());
+	}
+
+	// Un « { » dans la recherche est transmis encodé, sans être relu comme une variable de gabarit
+	@Test
+	void queryValuesAreEncodedNotExpanded() {
+		List<URI> calls = new CopyOnWriteArrayList<>();
+		MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+		query.add("q", "{phone} & case");
+
+		service(calls).getProducts(query, null).block();
+
+		assertEquals("q=%7Bphone%7D%20%26%20case&limit=24", calls.get(0).getRawQuery());
+	}
+}
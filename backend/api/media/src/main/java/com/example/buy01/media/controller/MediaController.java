@@ -17,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/media")
@@ -24,6 +25,9 @@ import java.util.List;
 @Tag(name = "Media", description = "Gestion des médias liés aux produits")
 public class MediaController {
 
+    // Produit concerné par une écriture : la gateway s'en sert pour invalider son cache de réponses
+    static final String PRODUCT_ID_HEADER = "X-Product-Id";
+
     private final MediaService mediaService;
 
     @Operation(summary = "Upload d’un fichier image lié à un produit (usage interne)")
@@ -57,7 +61,7 @@ public class MediaController {
             @RequestHeader("X-USER-ROLE") String role) throws IOException {
 
         Media media = mediaService.store(file, productId, "", email, role);
-        return ResponseEntity.ok(media);
+        return ResponseEntity.ok().header(PRODUCT_ID_HEADER, productId).body(media);
     }
 
     @Operation(summary = "Retourne tous les médias liés à un ID produit (usage interne)")
@@ -75,6 +79,20 @@ public class MediaController {
         return ResponseEntity.ok(mediaList);
     }
 
+    @Operation(summary = "Retourne les médias de plusieurs produits, indexés par ID produit (usage interne)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Médias retournés"),
+        @ApiResponse(responseCode = "400", description = "Trop d'IDs demandés"),
+        @ApiResponse(responseCode = "500", description = "Erreur serveur")
+    })
+    @PostMapping("/internal/get/batch")
+    public ResponseEntity<Map<String, List<Media>>> getMediaByProductIds(
+            @RequestBody List<String> productIds,
+            @RequestHeader("X-INTERNAL-TOKEN") String internalToken) {
+
+        return ResponseEntity.ok(mediaService.getMediaByProductIds(productIds));
+    }
+
     @Operation(summary = "Supprimer un média par son ID (accès restreint)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Média supprimé avec succès"),
@@ -87,8 +105,9 @@ public class MediaController {
             @RequestHeader("X-USER-EMAIL") String email,
             @RequestHeader("X-USER-ROLE") String role) {
 
-        mediaService.deleteMedia(mediaId, "", email, role);
-        return ResponseEntity.ok("Media deleted successfully.");
+        Media deleted = mediaService.deleteMedia(mediaId, "", email, role);
+        return ResponseEntity.ok().header(PRODUCT_ID_HEADER, deleted.getProductId())
+                .body("Media deleted successfully.");
     }
 
     @Operation(summary = "Supprimer tous les médias liés à un produit (interne)")
@@ -120,6 +139,6 @@ public class MediaController {
             @RequestHeader(value = "X-USER-ROLE", required = false) String role) {
 
         Media updated = mediaService.updateMedia(mediaId, file, "", email, role);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().header(PRODUCT_ID_HEADER, updated.getProductId()).body(updated);
     }
 }
@@ -0,0 +1,31 @@
+package com.example.buy01.media.event;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.buy01.media.model.Media;
+
+import lombok.RequiredArgsConstructor;
+
+// Publie les ajouts/suppressions de médias pour la projection de lecture de product-service.
+// La clé est l'ID produit : les événements d'un même produit restent ordonnés
+@Service
+@RequiredArgsConstructor
+public class KafkaMediaProducer {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(KafkaMediaProducer.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void sendMediaAddedEvent(Media media) {
+        kafkaTemplate.send("media-added-topic", media.getProductId(), media);
+
+        log.info("Sending media added event for mediaId: {}", media.getId());
+    }
+
+    public void sendMediaRemovedEvent(Media media) {
+        kafkaTemplate.send("media-removed-topic", media.getProductId(), media);
+
+        log.info("Sending media removed event for mediaId: {}", media.getId());
+    }
+}
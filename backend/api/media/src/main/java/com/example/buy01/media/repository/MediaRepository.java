@@ -5,6 +5,7 @@ import org.springframework.stereotype.Repository;
 
 import com.example.buy01.media.model.Media;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +13,6 @@ public interface MediaRepository extends MongoRepository<Media, String> {
 
     List<Media> findByProductId(String productId);
 
+    List<Media> findByProductIdIn(Collection<String> productIds);
+
 }
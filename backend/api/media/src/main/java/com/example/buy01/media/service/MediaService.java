@@ -8,6 +8,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.buy01.media.event.KafkaMediaProducer;
 import com.example.buy01.media.exception.ResourceNotFoundException;
 import com.example.buy01.media.model.Media;
 import com.example.buy01.media.repository.MediaRepository;
@@ -15,13 +16,22 @@ import com.example.buy01.media.utils.FileValidator;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MediaService {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(MediaService.class);
+
+    // Nombre maximal d'IDs produits acceptés par une requête groupée interne
+    public static final int MAX_BULK_IDS = 5000;
+
     @Value("${file.upload-dir}")
     private String UPLOAD_DIR;
 
@@ -34,6 +44,9 @@ public class MediaService {
     @Autowired
     private ProductClient productClient;
 
+    @Autowired
+    private KafkaMediaProducer kafkaMediaProducer;
+
     public Media store(MultipartFile file, String productId, String token, String email, String role)
             throws IOException {
 
@@ -56,6 +69,7 @@ public class MediaService {
         media.setProductId(productId);
 
         mediaRepository.save(media); // <- Sauvegarde en base MongoDB
+        kafkaMediaProducer.sendMediaAddedEvent(media);
 
         return media;
     }
@@ -70,7 +84,22 @@ public class MediaService {
         return mediaList;
     }
 
-    public void deleteMedia(String mediaId, String internalToken, String email, String role) {
+    // Récupération groupée des médias de plusieurs produits (requête $in unique)
+    // Les produits sans média sont absents de la map retournée
+    public Map<String, List<Media>> getMediaByProductIds(Collection<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        if (productIds.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Maximum " + MAX_BULK_IDS + " IDs par requête");
+        }
+
+        return mediaRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.groupingBy(Media::getProductId));
+    }
+
+    // Renvoie le média supprimé (son productId sert à l'invalidation du cache de la gateway)
+    public Media deleteMedia(String mediaId, String internalToken, String email, String role) {
 
         Media media = mediaRepository.findById(mediaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Le media n'a pas été trouvé: " + mediaId));
@@ -85,6 +114,8 @@ public class MediaService {
         }
 
         mediaRepository.delete(media);
+        kafkaMediaProducer.sendMediaRemovedEvent(media);
+        return media;
     }
 
     public Media updateMedia(String mediaId, MultipartFile file, String internalToken, String email,
@@ -107,6 +138,7 @@ public class MediaService {
 
             media.setImagePath("/productsImages/" + filename);
             mediaRepository.save(media);
+            kafkaMediaProducer.sendMediaAddedEvent(media); // même ID : remplace le chemin dans la projection
 
             return media;
 
@@ -133,9 +165,8 @@ public class MediaService {
     public boolean whichMake(String productId, String token, String email, String role) {
         if (email != null && role != null && token == "") {
             if (role.equals("ROLE_SELLER")) {
-                System.out.println("Role is SELLER, checking product ownership.");
                 if (!validateProduct(productId, email)) {
-                    System.out.println("Product does not belong to user: " + email);
+                    log.debug("Product {} does not belong to user: {}", productId, email);
                     return false;
                 }
             }
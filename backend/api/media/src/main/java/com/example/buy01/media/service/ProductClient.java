@@ -38,8 +38,7 @@ public class ProductClient {
                     HttpMethod.GET,
                     requestEntity,
                     Void.class);
-                    
-            System.out.println("Response status: " + response.getStatusCode());
+
             if (response.getStatusCode().is2xxSuccessful()) {
                 return true; // Product is valid
             } else {
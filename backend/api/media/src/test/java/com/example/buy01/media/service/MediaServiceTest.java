@@ -14,6 +14,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.buy01.media.event.KafkaMediaProducer;
 import com.example.buy01.media.exception.ResourceNotFoundException;
 import com.example.buy01.media.model.Media;
 import com.example.buy01.media.repository.MediaRepository;
@@ -38,6 +39,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @SpringBootTest(classes = { MediaService.class })
@@ -50,6 +52,9 @@ class MediaServiceTest {
     @MockitoBean
     private ProductClient productClient;
 
+    @MockitoBean
+    private KafkaMediaProducer kafkaMediaProducer;
+
     @Autowired
     private MediaService mediaService;
 
@@ -714,4 +719,40 @@ class MediaServiceTest {
         verify(mediaRepository).findByProductId(productId);
         verify(mediaRepository, never()).delete(any(Media.class));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test {@link MediaService#getMediaByProductIds(java.util.Collection)}.
+     *
+     * <p>
+     * Method under test: {@link MediaService#getMediaByProductIds(java.util.Collection)}
+     */
+    @Test
+    @DisplayName("Test getMediaByProductIds(Collection); then return medias grouped by product ID")
+    void testGetMediaByProductIds() {
+        // Arrange
+        Media media1 = new Media();
+        media1.setId("media1");
+        media1.setProductId("product1");
+
+        Media media2 = new Media();
+        media2.setId("media2");
+        media2.setProductId("product1");
+
+        Media media3 = new Media();
+        media3.setId("media3");
+        media3.setProductId("product2");
+
+        List<String> productIds = List.of("product1", "product2", "product3");
+        when(mediaRepository.findByProductIdIn(productIds)).thenReturn(List.of(media1, media2, media3));
+
+        // Act
+        Map<String, List<Media>> result = mediaService.getMediaByProductIds(productIds);
+
+        // Assert
+        verify(mediaRepository).findByProductIdIn(productIds);
+        assertEquals(2, result.size());
+        assertEquals(2, result.get("product1").size());
+        assertEquals(1, result.get("product2").size());
+        assertFalse(result.containsKey("product3"));
+    }
+}
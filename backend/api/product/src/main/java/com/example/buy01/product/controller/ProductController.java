@@ -2,42 +2,120 @@ package com.example.buy01.product.controller;
 
 import com.example.buy01.product.dto.ProductCreateDTO;
 import com.example.buy01.product.dto.ProductDTO;
+import com.example.buy01.product.dto.ProductFilterDTO;
+import com.example.buy01.product.dto.ProductSort;
 import com.example.buy01.product.dto.ProductUpdateDTO;
 import com.example.buy01.product.exception.ResourceNotFoundException;
 import com.example.buy01.product.service.ProductService;
+import com.example.buy01.product.service.ReactiveProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.annotation.security.PermitAll;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+        private static final int DEFAULT_PAGE_SIZE = 20;
+
         private final ProductService productService;
 
+        private final ReactiveProductService reactiveProductService;
+
+        private final ObjectMapper objectMapper;
+
         @Value("${internal.token}")
         private String internalToken;
 
-        public ProductController(ProductService productService) {
+        public ProductController(ProductService productService, ReactiveProductService reactiveProductService,
+                        ObjectMapper objectMapper) {
                 this.productService = productService;
+                this.reactiveProductService = reactiveProductService;
+                this.objectMapper = objectMapper;
         }
 
-        @Operation(summary = "Récupérer tous les produits")
-        @ApiResponse(responseCode = "200", description = "Liste des produits récupérée avec succès")
+        // Catalogue complet (mode historique), servi par le chemin de lecture réactif
+        @Operation(summary = "Récupérer tous les produits", description = "Catalogue complet (mode historique). "
+                        + "Pour une lecture paginée, utiliser limit et/ou cursor.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Produits récupérés avec succès")
+        })
+        @GetMapping(value = "/all", params = { "!limit", "!cursor", "!minPrice", "!maxPrice", "!inStock", "!sellerId",
+                        "!sort" })
+        @PermitAll
+        public Flux<ProductDTO> getAll() {
+                return reactiveProductService.getAllProducts();
+        }
+
+        @Operation(summary = "Récupérer une page de produits", description = "Page de produits paginée par curseur, "
+                        + "à poursuivre avec nextCursor. Filtres optionnels : minPrice, maxPrice, inStock, sellerId ; "
+                        + "tri : price_asc, price_desc ou newest (le curseur n'est valable que pour le même tri).")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Produits récupérés avec succès"),
+                        @ApiResponse(responseCode = "400", description = "Taille de page, filtre, tri ou curseur invalide")
+        })
         @GetMapping("/all")
         @PermitAll
-        public List<ProductDTO> getAll() {
-                return productService.getAllProducts();
+        public ResponseEntity<?> getPage(
+                        @RequestParam(required = false) Integer limit,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Double minPrice,
+                        @RequestParam(required = false) Double maxPrice,
+                        @RequestParam(required = false) Boolean inStock,
+                        @RequestParam(required = false) String sellerId,
+                        @RequestParam(required = false) String sort,
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+                int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+                ProductFilterDTO filter = new ProductFilterDTO(minPrice, maxPrice, inStock, sellerId);
+                ProductSort productSort = ProductSort.fromParam(sort);
+
+                // 304 à partir des seules révisions, sans enrichir la page
+                String etag = productService.getProductsPageETag(pageSize, cursor, filter, productSort);
+                if (etag != null && matchesETag(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (etag != null) {
+                        response.eTag(etag);
+                }
+                return response.body(productService.getProductsPage(pageSize, cursor, filter, productSort));
+        }
+
+        @Operation(summary = "Rechercher des produits", description = "Recherche plein texte sur le nom et la description. "
+                        + "Chaque mot peut être un début de mot ; résultats triés par pertinence.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Résultats de la recherche"),
+                        @ApiResponse(responseCode = "400", description = "Nombre de résultats invalide")
+        })
+        @GetMapping("/search")
+        @PermitAll
+        public List<ProductDTO> search(
+                        @RequestParam("q") String query,
+                        @RequestParam(defaultValue = "20") int limit) {
+                return productService.searchProducts(query, limit);
         }
 
         @Operation(summary = "Récupérer un produit par son ID")
@@ -47,8 +125,24 @@ public class ProductController {
         })
         @GetMapping("/{id}")
         @PermitAll
-        public ProductDTO getById(@PathVariable String id) {
-                return productService.getProductById(id);
+        public Mono<ResponseEntity<ProductDTO>> getById(
+                        @PathVariable String id,
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+                return reactiveProductService.getProductETag(id)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .flatMap(etag -> {
+                                        // 304 à partir de la seule révision, sans enrichir le produit
+                                        if (etag.isPresent() && matchesETag(ifNoneMatch, etag.get())) {
+                                                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                                                .eTag(etag.get()).<ProductDTO>build());
+                                        }
+                                        return reactiveProductService.getProductById(id).map(product -> {
+                                                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                                                etag.ifPresent(response::eTag);
+                                                return response.body(product);
+                                        });
+                                });
         }
 
         @Operation(summary = "Créer un produit avec images")
@@ -128,4 +222,55 @@ public class ProductController {
                         throw new ResourceNotFoundException("Produit non trouvé ou invalide");
                 }
         }
+
+        @Operation(summary = "Exporter le catalogue en NDJSON (interne)", description = "Un ProductDTO par ligne, trié par ID. "
+                        + "Pour reprendre un export interrompu, passer dans after l'ID du dernier produit reçu.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Export en cours de streaming"),
+                        @ApiResponse(responseCode = "400", description = "ID de reprise invalide")
+        })
+        @GetMapping(value = "/internal/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> exportProducts(
+                        @RequestParam(required = false) String after,
+                        @RequestHeader("X-INTERNAL-TOKEN") String token) {
+                if (after != null && !ObjectId.isValid(after)) {
+                        throw new IllegalArgumentException("ID de reprise invalide");
+                }
+
+                StreamingResponseBody body = out -> productService.exportProducts(after, batch -> {
+                        try {
+                                for (ProductDTO product : batch) {
+                                        out.write(objectMapper.writeValueAsBytes(product));
+                                        out.write('\n');
+                                }
+                                out.flush();
+                        } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                        }
+                });
+
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(body);
+        }
+
+        // Comparaison faible de If-None-Match (liste d'ETags, éventuellement W/..., ou *)
+        private static boolean matchesETag(String ifNoneMatch, String etag) {
+                if (ifNoneMatch == null) {
+                        return false;
+                }
+                for (String candidate : ifNoneMatch.split(",")) {
+                        String value = candidate.trim();
+                        if (value.equals("*")) {
+                                return true;
+                        }
+                        if (value.startsWith("W/")) {
+                                value = value.substring(2);
+                        }
+                        if (value.equals("\"" + etag + "\"")) {
+                                return true;
+                        }
+                }
+                return false;
+        }
 }
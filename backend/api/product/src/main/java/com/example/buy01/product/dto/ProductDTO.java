@@ -13,6 +13,9 @@ public class ProductDTO {
     private Integer quantity;
     private String sellerName;
     private List<MediaDTO> imageUrls;
+    // false quand media-service n'a pas répondu à temps : imageUrls est alors vide par défaut,
+    // pas parce que le produit n'a pas d'images (la gateway complète ces produits)
+    private boolean imagesResolved = true;
 
     public void setId(String id) {
         this.id = id;
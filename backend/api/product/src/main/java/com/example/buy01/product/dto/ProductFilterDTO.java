@@ -0,0 +1,20 @@
+package com.example.buy01.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filtres de la liste paginée ; un champ null n'applique aucun filtre
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterDTO {
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock; // true : uniquement quantity > 0
+    private String sellerId;
+
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && !Boolean.TRUE.equals(inStock) && sellerId == null;
+    }
+}
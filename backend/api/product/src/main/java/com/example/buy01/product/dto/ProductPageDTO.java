@@ -0,0 +1,14 @@
+package com.example.buy01.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Page de produits paginée par curseur ; nextCursor est null sur la dernière page
+@Data
+@AllArgsConstructor
+public class ProductPageDTO {
+    private List<ProductDTO> items;
+    private String nextCursor;
+}
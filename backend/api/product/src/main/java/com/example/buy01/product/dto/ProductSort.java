@@ -0,0 +1,31 @@
+package com.example.buy01.product.dto;
+
+// Ordres de tri de la liste paginée. L'_id (ObjectId) sert de départage et, pour NEWEST,
+// de date de création
+public enum ProductSort {
+    ID,
+    PRICE_ASC,
+    PRICE_DESC,
+    NEWEST;
+
+    public boolean byPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+
+    // Valeur du paramètre sort : price_asc, price_desc ou newest (absent = ordre des IDs)
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        switch (value.trim().toLowerCase()) {
+            case "price_asc":
+                return PRICE_ASC;
+            case "price_desc":
+                return PRICE_DESC;
+            case "newest":
+                return NEWEST;
+            default:
+                throw new IllegalArgumentException("Tri inconnu : " + value + " (price_asc, price_desc ou newest)");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.buy01.product.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.example.buy01.product.dto.MediaDTO;
+import com.example.buy01.product.service.ProductService;
+
+import lombok.RequiredArgsConstructor;
+
+// Tient à jour la liste d'images de la projection produit.
+// media-service publie son modèle Media : on ignore l'en-tête de type et on le lit comme MediaDTO
+@Service
+@RequiredArgsConstructor
+public class KafkaMediaConsumer {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(KafkaMediaConsumer.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @KafkaListener(topics = "media-added-topic", groupId = "product-service-group", properties = {
+            "spring.json.use.type.headers=false",
+            "spring.json.value.default.type=com.example.buy01.product.dto.MediaDTO" })
+    public void consumeMediaAdded(MediaDTO media) {
+        log.info("📥 Event reçu - média ajouté : {} (produit {})", media.getId(), media.getProductId());
+        productService.upsertImage(media);
+    }
+
+    @KafkaListener(topics = "media-removed-topic", groupId = "product-service-group", properties = {
+            "spring.json.use.type.headers=false",
+            "spring.json.value.default.type=com.example.buy01.product.dto.MediaDTO" })
+    public void consumeMediaRemoved(MediaDTO media) {
+        log.info("📥 Event reçu - média supprimé : {} (produit {})", media.getId(), media.getProductId());
+        productService.removeImage(media);
+    }
+}
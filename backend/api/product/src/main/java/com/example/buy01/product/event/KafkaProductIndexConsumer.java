@@ -0,0 +1,32 @@
+package com.example.buy01.product.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.example.buy01.product.model.Product;
+import com.example.buy01.product.service.ProductSearchIndex;
+
+// Index de recherche : applique les écritures faites par toutes les instances, y compris celle-ci
+// (réindexer un produit est idempotent). Groupe propre à chaque instance (product.instance-id) ;
+// une instance qui démarre reconstruit son index depuis Mongo, elle ne relit donc que les nouveaux événements
+@Service
+public class KafkaProductIndexConsumer {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @KafkaListener(topics = "product-indexed-topic", groupId = "product-search-${product.instance-id}", properties = {
+            "auto.offset.reset=latest",
+            "spring.json.use.type.headers=false",
+            "spring.json.value.default.type=com.example.buy01.product.model.Product" })
+    public void indexOnProductWritten(Product product) {
+        productSearchIndex.index(product);
+    }
+
+    @KafkaListener(topics = "product-removed-topic", groupId = "product-search-${product.instance-id}", properties = {
+            "auto.offset.reset=latest" })
+    public void removeOnProductDeleted(String productId) {
+        productSearchIndex.remove(productId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.buy01.product.event;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.buy01.product.model.Product;
+
+import lombok.RequiredArgsConstructor;
+
+// Diffuse les écritures de produits aux autres instances de product-service pour leur index
+// de recherche en mémoire (voir KafkaProductIndexConsumer). Clé = ID produit : les événements
+// d'un même produit restent ordonnés
+@Service
+@RequiredArgsConstructor
+public class KafkaProductProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void sendProductIndexedEvent(Product product) {
+        kafkaTemplate.send("product-indexed-topic", product.getId(), product);
+    }
+
+    public void sendProductRemovedEvent(String productId) {
+        kafkaTemplate.send("product-removed-topic", productId, productId);
+    }
+}
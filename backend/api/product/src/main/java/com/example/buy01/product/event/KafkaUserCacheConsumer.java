@@ -0,0 +1,31 @@
+package com.example.buy01.product.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import com.example.buy01.product.service.SellerNameCache;
+
+// Invalidation du cache local des noms de vendeurs.
+// Groupe propre à chaque instance (product.instance-id) : chaque instance reçoit tous les événements,
+// contrairement à KafkaUserConsumer qui partage product-service-group
+@Service
+public class KafkaUserCacheConsumer {
+
+    @Autowired
+    private SellerNameCache sellerNameCache;
+
+    @KafkaListener(topics = "user-updated-topic", groupId = "product-seller-cache-${product.instance-id}", properties = {
+            "auto.offset.reset=latest" })
+    public void evictOnUserUpdated(@Header(KafkaHeaders.RECEIVED_KEY) String userId) {
+        sellerNameCache.evict(userId);
+    }
+
+    @KafkaListener(topics = "user-deleted-topic", groupId = "product-seller-cache-${product.instance-id}", properties = {
+            "auto.offset.reset=latest" })
+    public void evictOnUserDeleted(String userId) {
+        sellerNameCache.evict(userId);
+    }
+}
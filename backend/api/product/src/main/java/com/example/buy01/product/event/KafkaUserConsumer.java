@@ -2,6 +2,9 @@ package com.example.buy01.product.event;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
 import com.example.buy01.product.service.ProductService;
@@ -23,4 +26,11 @@ public class KafkaUserConsumer {
         productService.deleteAllProductsByUserId(userId);
         log.info("Produits du vendeur {} supprimés", userId);
     }
+
+    // Clé = ID utilisateur, valeur = nouveau nom : met à jour sellerName dans la projection
+    @KafkaListener(topics = "user-updated-topic", groupId = "product-service-group")
+    public void consumeUserUpdated(@Header(KafkaHeaders.RECEIVED_KEY) String userId, @Payload String name) {
+        log.info("📥 Event reçu - mise à jour utilisateur : {}", userId);
+        productService.updateSellerName(userId, name);
+    }
 }
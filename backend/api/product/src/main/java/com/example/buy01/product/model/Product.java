@@ -2,12 +2,20 @@ package com.example.buy01.product.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.util.List;
+
 // Using @Field to map the field to a different name in the database
 @Data
 @Document(collection = "products")
+// Index de la liste filtrée / triée (voir ProductRepositoryImpl#findPage), sur le modèle
+// égalité -> tri -> plage : vendeur, puis prix et _id, puis quantité (filtre en stock)
+@CompoundIndex(name = "price_id_quantity", def = "{'price': 1, '_id': 1, 'quantity': 1}")
+@CompoundIndex(name = "seller_price_id_quantity", def = "{'userId': 1, 'price': 1, '_id': 1, 'quantity': 1}")
+@CompoundIndex(name = "seller_id_quantity", def = "{'userId': 1, '_id': 1, 'quantity': 1}")
 public class Product {
     @Id
     private String id;
@@ -18,6 +26,17 @@ public class Product {
     private Double price;
     private Integer quantity;
     private String userId;
+
+    // Projection dénormalisée pour la lecture, tenue à jour par les événements Kafka
+    // (user-updated-topic, media-added-topic, media-removed-topic).
+    // null tant que le produit n'a pas encore été projeté ; sellerName vide si user-service
+    // ne connaît pas le vendeur (voir ProductService#sellerNameOf)
+    private String sellerName;
+    private List<ProductImage> images;
+
+    // Révision du contenu exposé (champs, vendeur, images), incrémentée à chaque écriture ;
+    // sert d'ETag aux lectures conditionnelles. null pour les documents antérieurs (= 0)
+    private Long revision;
     
     // Getters and setters
 
@@ -0,0 +1,14 @@
+package com.example.buy01.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Copie locale d'un média de media-service, embarquée dans Product pour la lecture
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImage {
+    private String mediaId;
+    private String imagePath;
+}
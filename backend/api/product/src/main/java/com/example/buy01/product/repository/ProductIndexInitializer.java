@@ -0,0 +1,46 @@
+package com.example.buy01.product.repository;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.example.buy01.product.model.Product;
+
+import lombok.RequiredArgsConstructor;
+
+// Création des index composés déclarés sur Product (@CompoundIndex), une fois l'application prête
+// et hors du thread de démarrage : Mongo indisponible ne bloque ni n'empêche le démarrage, l'échec
+// est journalisé et la création retentée au prochain démarrage. createIndex est sans effet si
+// l'index existe déjà
+@Component
+@RequiredArgsConstructor
+public class ProductIndexInitializer {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoConverter mongoConverter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexesInBackground() {
+        CompletableFuture.runAsync(this::createIndexes);
+    }
+
+    void createIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Product.class);
+            new MongoPersistentEntityIndexResolver(mongoConverter.getMappingContext())
+                    .resolveIndexFor(Product.class)
+                    .forEach(indexOps::createIndex);
+            log.info("Index des produits vérifiés");
+        } catch (RuntimeException e) {
+            log.warn("Création des index des produits impossible : {}", e.getMessage());
+        }
+    }
+}
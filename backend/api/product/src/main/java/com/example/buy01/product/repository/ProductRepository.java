@@ -1,12 +1,25 @@
 package com.example.buy01.product.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.example.buy01.product.model.Product;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface 
-ProductRepository extends MongoRepository<Product, String> {
+ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
     List<Product> findByUserId(String userId);
+
+    // Pagination par curseur (keyset) sur _id : le Pageable ne sert qu'à la limite et au tri,
+    // il doit toujours être en page 0 pour ne jamais déclencher de skip
+    List<Product> findAllBy(Pageable pageable);
+
+    List<Product> findByIdGreaterThan(String id, Pageable pageable);
+
+    // Métadonnées seules (révision, présence de la projection), pour les requêtes conditionnelles
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'revision': 1, 'sellerName': 1, 'images': 1 }")
+    Optional<Product> findMetadataById(String id);
 }
@@ -0,0 +1,44 @@
+package com.example.buy01.product.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.buy01.product.dto.ProductFilterDTO;
+import com.example.buy01.product.dto.ProductSort;
+import com.example.buy01.product.model.Product;
+
+import com.example.buy01.product.model.ProductImage;
+
+// Mises à jour ciblées de la projection de lecture (sellerName, images),
+// sans relire ni réécrire le document complet ; chacune incrémente la révision du produit
+public interface ProductRepositoryCustom {
+
+    void updateSellerName(String userId, String sellerName);
+
+    // Enregistre la projection calculée à partir d'une lecture faite à la révision readRevision.
+    // Sans effet si le document a changé depuis (événement Kafka, modification) : la projection
+    // lue serait plus ancienne que les images déjà enregistrées, elle sera recalculée à la prochaine lecture
+    void saveProjection(String productId, Long readRevision, String sellerName, List<ProductImage> images);
+
+    // Modification des champs éditables : seuls les champs non null sont écrits, sans toucher
+    // à la projection (images, sellerName) ; la révision est incrémentée dans la même écriture.
+    // false si le produit n'existe plus
+    boolean updateFields(String productId, String name, String description, Double price, Integer quantity);
+
+    void addImages(String productId, List<ProductImage> images);
+
+    void upsertImage(String productId, ProductImage image);
+
+    void removeImage(String productId, String mediaId);
+
+    // Parcours du catalogue par curseur Mongo, trié par _id, à partir de l'ID exclu afterId (null = début).
+    // Le Stream doit être fermé par l'appelant
+    Stream<Product> streamAllAfter(String afterId);
+
+    // Page filtrée et triée, en keyset : les produits situés après (afterPrice, afterId) dans l'ordre
+    // de sort. afterId null = première page ; afterPrice n'est utilisé que pour les tris par prix
+    List<Product> findPage(ProductFilterDTO filter, ProductSort sort, Double afterPrice, String afterId, int limit);
+
+    // Même page que findPage, limitée aux champs nécessaires au calcul de l'ETag et du curseur
+    List<Product> findPageMetadata(ProductFilterDTO filter, ProductSort sort, Double afterPrice, String afterId, int limit);
+}
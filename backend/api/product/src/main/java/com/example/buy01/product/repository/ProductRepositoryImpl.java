@@ -0,0 +1,189 @@
+package com.example.buy01.product.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.buy01.product.dto.ProductFilterDTO;
+import com.example.buy01.product.dto.ProductSort;
+import com.example.buy01.product.model.Product;
+import com.example.buy01.product.model.ProductImage;
+import com.mongodb.client.result.UpdateResult;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // Documents ramenés par aller-retour du curseur d'export
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void updateSellerName(String userId, String sellerName) {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("userId").is(userId)),
+                new Update().set("sellerName", sellerName).inc("revision", 1),
+                Product.class);
+    }
+
+    @Override
+    public void saveProjection(String productId, Long readRevision, String sellerName, List<ProductImage> images) {
+        Update update = new Update().set("images", images).inc("revision", 1);
+        if (sellerName != null) {
+            update.set("sellerName", sellerName);
+        }
+        // revision null : document antérieur au champ, is(null) couvre aussi le champ absent
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(productId).and("revision").is(readRevision)),
+                update,
+                Product.class);
+    }
+
+    @Override
+    public boolean updateFields(String productId, String name, String description, Double price, Integer quantity) {
+        // $inc plutôt qu'une révision calculée à la lecture : deux écritures concurrentes (ou une
+        // écriture et un événement Kafka) ne peuvent pas publier deux contenus sous le même ETag
+        Update update = new Update().inc("revision", 1);
+        if (name != null) {
+            update.set("name", name);
+        }
+        if (description != null) {
+            update.set("description", description);
+        }
+        if (price != null) {
+            update.set("price", price);
+        }
+        if (quantity != null) {
+            update.set("quantity", quantity);
+        }
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(productId)), update, Product.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void addImages(String productId, List<ProductImage> images) {
+        if (images.isEmpty()) {
+            return;
+        }
+        // $addToSet : idempotent si l'événement media-added a déjà inséré la même image
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(productId)),
+                new Update().addToSet("images").each(images.toArray()).inc("revision", 1),
+                Product.class);
+    }
+
+    @Override
+    public void upsertImage(String productId, ProductImage image) {
+        UpdateResult updated = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(productId).and("images.mediaId").is(image.getMediaId())),
+                new Update().set("images.$.imagePath", image.getImagePath()).inc("revision", 1),
+                Product.class);
+
+        if (updated.getMatchedCount() == 0) {
+            // Un produit pas encore projeté (images absent) sera complété à sa prochaine lecture
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(productId)
+                            .and("images").exists(true)
+                            .and("images.mediaId").ne(image.getMediaId())),
+                    new Update().push("images", image).inc("revision", 1),
+                    Product.class);
+        }
+    }
+
+    @Override
+    public void removeImage(String productId, String mediaId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(productId)),
+                new Update().pull("images", new Document("mediaId", mediaId)).inc("revision", 1),
+                Product.class);
+    }
+
+    @Override
+    public Stream<Product> streamAllAfter(String afterId) {
+        Query query = afterId == null
+                ? new Query()
+                : Query.query(Criteria.where("id").gt(afterId));
+        query.with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, Product.class);
+    }
+
+    // Les filtres et le tri correspondent aux index composés déclarés sur Product
+    // (égalité vendeur, puis tri prix/_id, puis plage de quantité)
+    @Override
+    public List<Product> findPage(ProductFilterDTO filter, ProductSort sort, Double afterPrice, String afterId, int limit) {
+        return mongoTemplate.find(pageQuery(filter, sort, afterPrice, afterId, limit), Product.class);
+    }
+
+    @Override
+    public List<Product> findPageMetadata(ProductFilterDTO filter, ProductSort sort, Double afterPrice, String afterId,
+            int limit) {
+        Query query = pageQuery(filter, sort, afterPrice, afterId, limit);
+        query.fields().include("revision", "price", "sellerName", "images");
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    private static Query pageQuery(ProductFilterDTO filter, ProductSort sort, Double afterPrice, String afterId, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (filter.getSellerId() != null) {
+            criteria.add(Criteria.where("userId").is(filter.getSellerId()));
+        }
+        if (filter.getMinPrice() != null) {
+            criteria.add(Criteria.where("price").gte(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            criteria.add(Criteria.where("price").lte(filter.getMaxPrice()));
+        }
+        if (Boolean.TRUE.equals(filter.getInStock())) {
+            criteria.add(Criteria.where("quantity").gt(0));
+        }
+        if (afterId != null) {
+            criteria.add(afterCursor(sort, afterPrice, afterId));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : Query.query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        query.with(sortOf(sort)).limit(limit);
+        return query;
+    }
+
+    private static Criteria afterCursor(ProductSort sort, Double afterPrice, String afterId) {
+        switch (sort) {
+            case PRICE_ASC:
+                return new Criteria().orOperator(
+                        Criteria.where("price").gt(afterPrice),
+                        Criteria.where("price").is(afterPrice).and("id").gt(afterId));
+            case PRICE_DESC:
+                return new Criteria().orOperator(
+                        Criteria.where("price").lt(afterPrice),
+                        Criteria.where("price").is(afterPrice).and("id").lt(afterId));
+            case NEWEST:
+                return Criteria.where("id").lt(afterId);
+            default:
+                return Criteria.where("id").gt(afterId);
+        }
+    }
+
+    private static Sort sortOf(ProductSort sort) {
+        switch (sort) {
+            case PRICE_ASC:
+                return Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            case PRICE_DESC:
+                return Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"));
+            case NEWEST:
+                return Sort.by(Sort.Order.desc("id"));
+            default:
+                return Sort.by(Sort.Order.asc("id"));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.buy01.product.repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.buy01.product.model.Product;
+
+import reactor.core.publisher.Mono;
+
+// Accès non bloquant utilisé par le chemin de lecture réactif (catalogue, détail produit)
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String>, ReactiveProductRepositoryCustom {
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'revision': 1, 'sellerName': 1, 'images': 1 }")
+    Mono<Product> findMetadataById(String id);
+}
@@ -0,0 +1,13 @@
+package com.example.buy01.product.repository;
+
+import java.util.List;
+
+import com.example.buy01.product.model.ProductImage;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductRepositoryCustom {
+
+    // Même garde que ProductRepositoryCustom#saveProjection : sans effet si la révision a changé depuis la lecture
+    Mono<Void> saveProjection(String productId, Long readRevision, String sellerName, List<ProductImage> images);
+}
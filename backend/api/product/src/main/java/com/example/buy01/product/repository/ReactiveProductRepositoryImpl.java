@@ -0,0 +1,34 @@
+package com.example.buy01.product.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.buy01.product.model.Product;
+import com.example.buy01.product.model.ProductImage;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ReactiveProductRepositoryImpl implements ReactiveProductRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Void> saveProjection(String productId, Long readRevision, String sellerName,
+            List<ProductImage> images) {
+        Update update = new Update().set("images", images).inc("revision", 1);
+        if (sellerName != null) {
+            update.set("sellerName", sellerName);
+        }
+        return reactiveMongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(productId).and("revision").is(readRevision)),
+                update,
+                Product.class)
+                .then();
+    }
+}
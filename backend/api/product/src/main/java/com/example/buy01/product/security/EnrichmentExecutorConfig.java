@@ -0,0 +1,28 @@
+package com.example.buy01.product.security;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EnrichmentExecutorConfig {
+
+    // Pool borné dédié aux appels user-service / media-service lancés en parallèle.
+    // File pleine : la tâche est rejetée (AbortPolicy) et ProductService renvoie des données partielles ;
+    // jamais d'appel bloquant sans délai dans le thread Tomcat de la requête
+    @Bean(name = "enrichmentExecutor")
+    public ThreadPoolTaskExecutor enrichmentExecutor(
+            @Value("${product.enrichment.pool-size:16}") int poolSize,
+            @Value("${product.enrichment.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("enrichment-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -1,16 +1,69 @@
 package com.example.buy01.product.security;
 
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+// Appels internes (user-service et media-service) sur un pool de connexions keep-alive au lieu d'une connexion TCP
+// par requête. Le load balancer résout d'abord le nom du service : chaque instance est une route
+// du pool, bornée par max-per-route. Occupation du pool exposée sous httpcomponents.httpclient.pool.*
+// (tag httpclient=internal)
 @Configuration
 public class RestTemplateConfig {
 
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient internalHttpClient(
+            @Value("${internal-http.max-total:200}") int maxTotal,
+            @Value("${internal-http.max-per-route:50}") int maxPerRoute,
+            @Value("${internal-http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${internal-http.read-timeout:5s}") Duration readTimeout,
+            @Value("${internal-http.acquire-timeout:1s}") Duration acquireTimeout,
+            @Value("${internal-http.keep-alive:15s}") Duration keepAlive,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        // Connexion inactive depuis 2 s : vérifiée avant réutilisation
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "internal").bindTo(meterRegistry);
+
+        // keep-alive sous le délai d'inactivité de Tomcat côté service appelé : le pool ferme
+        // la connexion avant que le serveur ne le fasse
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+
     @Bean
     @LoadBalanced
-    public RestTemplate eurekaRestTemplate() {
-        return new RestTemplate(); // Utilise user-service
+    public RestTemplate eurekaRestTemplate(CloseableHttpClient internalHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(internalHttpClient));
     }
-}
\ No newline at end of file
+}
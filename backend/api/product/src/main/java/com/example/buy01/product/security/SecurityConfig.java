@@ -1,6 +1,7 @@
 package com.example.buy01.product.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -36,6 +37,10 @@ public class SecurityConfig {
         @Autowired
         private InternalAccessFilter internalAccessFilter;
 
+        // Port de l'actuator (management.server.port), non publié hors du réseau Docker
+        @Value("${management.server.port:-1}")
+        private int managementPort;
+
         @Bean
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
                 http
@@ -45,12 +50,17 @@ public class SecurityConfig {
                                 .authorizeHttpRequests(auth -> auth
                                                 .requestMatchers(
                                                                 "/api/products/all",
+                                                                "/api/products/search",
                                                                 "/api/products/{id}",
                                                                 "/v3/api-docs/**",
                                                                 "/swagger-ui/**",
                                                                 "/swagger-ui.html",
                                                                 "/swagger-resources/**",
-                                                                "/webjars/**")
+                                                                "/webjars/**",
+                                                                "/actuator/health")
+                                                .permitAll()
+                                                // Métriques : uniquement sur le port de management, jamais sur 8082
+                                                .requestMatchers(request -> request.getLocalPort() == managementPort)
                                                 .permitAll()
                                                 .anyRequest().authenticated())
                                 .addFilterBefore(gatewayAuthFilter, UsernamePasswordAuthenticationFilter.class)
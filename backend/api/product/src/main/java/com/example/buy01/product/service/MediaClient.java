@@ -4,7 +4,12 @@ import org.springframework.http.HttpHeaders;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +30,11 @@ import com.example.buy01.product.dto.MediaDTO;
 @Component
 public class MediaClient {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(MediaClient.class);
+
+    // Taille des paquets envoyés à l'endpoint groupé (le serveur en accepte jusqu'à 5000)
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -61,10 +71,10 @@ public class MediaClient {
         return response.getBody();
 
     } catch (IOException e) {
-        System.err.println("❌ Erreur de conversion du fichier : " + e.getMessage());
+        log.warn("Conversion du fichier impossible pour le produit {}", productId, e);
         return null;
     } catch (RestClientException e) {
-        System.err.println("❌ Erreur d’appel à media-service : " + e.getMessage());
+        log.warn("Appel à media-service impossible (upload, produit {})", productId, e);
         return null;
     }
 }
@@ -88,7 +98,7 @@ public class MediaClient {
 
             return response.getBody();
         } catch (RestClientException e) {
-            System.err.println("❌ Erreur d’appel à media-service : " + e.getMessage());
+            log.warn("Appel à media-service impossible (médias du produit {})", productId, e);
             return null;
         }
     }
@@ -104,7 +114,43 @@ public class MediaClient {
 
             restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, Void.class);
         } catch (RestClientException e) {
-            System.err.println("❌ Erreur d’appel à media-service pour supprimer le média : " + e.getMessage());
+            log.warn("Appel à media-service impossible (suppression des médias du produit {})", id, e);
+        }
+    }
+
+    // Récupère les médias de plusieurs produits via l'endpoint groupé de media-service,
+    // par paquets de BULK_CHUNK_SIZE IDs distincts, indexés par ID produit ;
+    // null si media-service est injoignable
+    public Map<String, List<MediaDTO>> getMediasByProductIds(Collection<String> productIds) {
+        Map<String, List<MediaDTO>> medias = new HashMap<>();
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(productIds));
+
+        for (int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            List<String> chunk = distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinctIds.size()));
+            try {
+                String url = "http://media-service/api/media/internal/get/batch";
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.set("X-INTERNAL-TOKEN", internalToken);
+
+                HttpEntity<List<String>> requestEntity = new HttpEntity<>(chunk, headers);
+
+                ResponseEntity<Map<String, List<MediaDTO>>> response = restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        requestEntity,
+                        new org.springframework.core.ParameterizedTypeReference<Map<String, List<MediaDTO>>>() {
+                        });
+
+                if (response.getBody() != null) {
+                    medias.putAll(response.getBody());
+                }
+            } catch (RestClientException e) {
+                log.warn("Appel groupé à media-service impossible ({} produits)", chunk.size(), e);
+                return null;
+            }
         }
+        return medias;
     }
 }
@@ -0,0 +1,227 @@
+package com.example.buy01.product.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.buy01.product.model.Product;
+import com.example.buy01.product.repository.ProductRepository;
+
+// Index inversé en mémoire sur le nom et la description des produits.
+// token -> (ID produit -> poids) ; les tokens sont triés (skip list) pour la recherche par préfixe.
+// Les écritures de cette instance sont appliquées tout de suite par ProductService ; celles des autres
+// instances arrivent par product-indexed-topic / product-removed-topic (voir KafkaProductIndexConsumer).
+// Reconstruit au démarrage puis périodiquement (product.search.rebuild-interval) pour rattraper
+// un événement manqué : le nouvel index est construit à part puis remplace l'ancien d'un coup
+@Component
+public class ProductSearchIndex {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // Un terme trouvé dans le nom compte plus qu'un terme de la description
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    // Un terme qui n'est qu'un préfixe du token indexé rapporte moins qu'un terme exact
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private volatile Segment current = new Segment();
+
+    // Index en cours de reconstruction (null sinon) : reçoit aussi les écritures concurrentes
+    private volatile Segment rebuilding;
+
+    // Produits écrits pendant la reconstruction : leur version lue par le parcours Mongo peut être
+    // plus ancienne, elle n'est pas indexée. compute sérialise écriture et parcours par produit
+    private final Map<String, Boolean> writtenDuringRebuild = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${product.search.rebuild-interval:30m}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Segment next = new Segment();
+        writtenDuringRebuild.clear();
+        rebuilding = next;
+        try (Stream<Product> products = productRepository.streamAllAfter(null)) {
+            List<Product> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            products.forEach(product -> {
+                batch.add(product);
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    batch.parallelStream().forEach(found -> indexIfUnchanged(next, found));
+                    batch.clear();
+                }
+            });
+            batch.parallelStream().forEach(found -> indexIfUnchanged(next, found));
+            current = next;
+            log.info("Index de recherche reconstruit : {} produits en {} ms", next.documents.size(),
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // Mongo indisponible : l'index courant reste en service jusqu'à la prochaine reconstruction
+            log.warn("Reconstruction de l'index de recherche impossible : {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+            writtenDuringRebuild.clear();
+        }
+    }
+
+    private void indexIfUnchanged(Segment segment, Product product) {
+        writtenDuringRebuild.compute(product.getId(), (id, written) -> {
+            if (written == null) {
+                segment.index(product);
+            }
+            return written;
+        });
+    }
+
+    // rebuilding est lu avant current : une écriture concurrente du remplacement atteint toujours
+    // le nouvel index
+    public void index(Product product) {
+        Segment next = rebuilding;
+        current.index(product);
+        if (next != null) {
+            writtenDuringRebuild.compute(product.getId(), (id, written) -> {
+                next.index(product);
+                return Boolean.TRUE;
+            });
+        }
+    }
+
+    public void remove(String productId) {
+        Segment next = rebuilding;
+        current.remove(productId);
+        if (next != null) {
+            writtenDuringRebuild.compute(productId, (id, written) -> {
+                next.remove(productId);
+                return Boolean.TRUE;
+            });
+        }
+    }
+
+    // IDs des produits correspondant à tous les termes de la requête (chaque terme peut être
+    // un préfixe), du plus pertinent au moins pertinent
+    public List<String> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Segment segment = current;
+        Map<String, Double> scores = null;
+        for (String term : terms) {
+            Map<String, Double> termScores = segment.scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((productId, score) -> score + termScores.get(productId));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    // Postings et documents d'une génération de l'index
+    private static final class Segment {
+
+        private final ConcurrentSkipListMap<String, Map<String, Double>> postings = new ConcurrentSkipListMap<>();
+
+        // Tokens indexés par produit, pour pouvoir retirer un produit de l'index
+        private final Map<String, Map<String, Double>> documents = new ConcurrentHashMap<>();
+
+        void index(Product product) {
+            Map<String, Double> weights = new HashMap<>();
+            for (String token : tokenize(product.getName())) {
+                weights.merge(token, NAME_WEIGHT, Double::sum);
+            }
+            for (String token : tokenize(product.getDescription())) {
+                weights.merge(token, DESCRIPTION_WEIGHT, Double::sum);
+            }
+
+            // Même produit réindexé (mise à jour) : on ne garde que ses nouveaux tokens
+            Map<String, Double> previous = documents.put(product.getId(), weights);
+            if (previous != null) {
+                previous.keySet().stream()
+                        .filter(token -> !weights.containsKey(token))
+                        .forEach(token -> removePosting(token, product.getId()));
+            }
+            weights.forEach((token, weight) -> postings.compute(token, (key, products) -> {
+                Map<String, Double> updated = products != null ? products : new ConcurrentHashMap<>();
+                updated.put(product.getId(), weight);
+                return updated;
+            }));
+        }
+
+        void remove(String productId) {
+            Map<String, Double> previous = documents.remove(productId);
+            if (previous != null) {
+                previous.keySet().forEach(token -> removePosting(token, productId));
+            }
+        }
+
+        // Score d'un terme par produit : poids du token pondéré par sa rareté (idf),
+        // réduit pour les tokens qui ne font que commencer par le terme
+        Map<String, Double> scoreTerm(String term) {
+            Map<String, Double> scores = new HashMap<>();
+            double total = Math.max(documents.size(), 1);
+
+            NavigableMap<String, Map<String, Double>> matches = postings.subMap(term, true,
+                    term + Character.MAX_VALUE, false);
+            matches.forEach((token, products) -> {
+                double idf = Math.log(1 + total / Math.max(products.size(), 1));
+                double factor = token.equals(term) ? 1.0 : PREFIX_FACTOR;
+                products.forEach((productId, weight) -> scores.merge(productId, weight * idf * factor, Math::max));
+            });
+            return scores;
+        }
+
+        private void removePosting(String token, String productId) {
+            postings.computeIfPresent(token, (key, products) -> {
+                products.remove(productId);
+                return products.isEmpty() ? null : products;
+            });
+        }
+    }
+
+    // Minuscules, accents retirés, découpage sur tout ce qui n'est ni lettre ni chiffre
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase();
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -2,28 +2,65 @@ package com.example.buy01.product.service;
 
 import lombok.RequiredArgsConstructor;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.buy01.product.dto.MediaDTO;
 import com.example.buy01.product.dto.ProductCreateDTO;
 import com.example.buy01.product.dto.ProductDTO;
+import com.example.buy01.product.dto.ProductFilterDTO;
+import com.example.buy01.product.dto.ProductPageDTO;
+import com.example.buy01.product.dto.ProductSort;
 import com.example.buy01.product.dto.ProductUpdateDTO;
 import com.example.buy01.product.dto.UserDTO;
+import com.example.buy01.product.event.KafkaProductProducer;
 import com.example.buy01.product.exception.ResourceNotFoundException;
 import com.example.buy01.product.model.Product;
+import com.example.buy01.product.model.ProductImage;
 import com.example.buy01.product.repository.ProductRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductService.class);
+
+    // Taille maximale d'une page de la pagination par curseur
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Nombre de produits enrichis et écrits ensemble par l'export NDJSON
+    public static final int EXPORT_BATCH_SIZE = 500;
+
+    // sellerName projeté pour un vendeur que user-service ne connaît pas : le produit compte
+    // comme projeté, et le DTO expose un vendeur null
+    static final String UNKNOWN_SELLER = "";
+
     @Autowired
     private UserClient userClient;
 
@@ -36,6 +73,20 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private KafkaProductProducer kafkaProductProducer;
+
+    @Autowired
+    @Qualifier("enrichmentExecutor")
+    private Executor enrichmentExecutor;
+
+    // Délai maximal accordé à chaque appel user-service / media-service lors de l'enrichissement
+    @Value("${product.enrichment.timeout-ms:800}")
+    private long enrichmentTimeoutMs;
+
     public ProductDTO createProduct(ProductCreateDTO product, String email, String role, MultipartFile[] files) {
 
         // Appel à user-service pour vérifier l'utilisateur
@@ -61,9 +112,19 @@ public class ProductService {
             throw new IllegalArgumentException("Maximum 5 images autorisées");
         }
         
+        // Projection initiale : les images sont ajoutées après l'upload, les événements
+        // media-added ultérieurs tiendront la liste à jour
+        newProduct.setSellerName(user.getName());
+        newProduct.setImages(new ArrayList<>());
+        newProduct.setRevision(1L);
+
         ValidateMethods.validateProduct(newProduct);
         Product productSave = productRepository.save(newProduct);
+        indexProduct(productSave);
         List<MediaDTO> imageProduts = UploadImages(productSave.getId(), files);
+        productRepository.addImages(productSave.getId(), imageProduts.stream()
+                .map(media -> new ProductImage(media.getId(), media.getImagePath()))
+                .collect(Collectors.toList()));
         return toDTO(productSave, user.getName(), imageProduts);
     }
 
@@ -97,28 +158,308 @@ public class ProductService {
     }
 
     // Récupération de tous les produits
+    // Une seule lecture Mongo, puis enrichissement groupé (voir enrich)
     public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(product -> {
-                    return getProductById(product.getId());
-                })
+        return enrich(productRepository.findAll());
+    }
+
+    // Récupération paginée par curseur (keyset sur _id)
+    // Le curseur est l'ID du dernier produit renvoyé, encodé en base64 URL : il reste opaque
+    // pour le client et la page N coûte autant que la page 1 (aucun skip)
+    public ProductPageDTO getProductsPage(int limit, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+
+        // On lit un élément de plus pour savoir s'il existe une page suivante
+        Pageable pageable = PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.ASC, "id"));
+        PagePosition after = decodePagePosition(cursor, ProductSort.ID);
+        List<Product> products = after.id == null
+                ? productRepository.findAllBy(pageable)
+                : productRepository.findByIdGreaterThan(after.id, pageable);
+
+        String nextCursor = null;
+        if (products.size() > limit) {
+            products = products.subList(0, limit);
+            nextCursor = nextPageCursor(products.get(limit - 1), ProductSort.ID);
+        }
+
+        return new ProductPageDTO(enrich(products), nextCursor);
+    }
+
+    // Liste paginée filtrée (prix, stock, vendeur) et triée (prix, nouveautés).
+    // Sans filtre ni tri, même chemin que getProductsPage(limit, cursor).
+    // Pour les tris par prix le curseur porte (prix, ID) du dernier produit renvoyé,
+    // sinon son seul ID ; la requête reste un parcours d'index (voir ProductRepositoryImpl#findPage)
+    public ProductPageDTO getProductsPage(int limit, String cursor, ProductFilterDTO filter, ProductSort sort) {
+        if (filter.isEmpty() && sort == ProductSort.ID) {
+            return getProductsPage(limit, cursor);
+        }
+        validatePageRequest(limit, filter);
+        PagePosition after = decodePagePosition(cursor, sort);
+
+        List<Product> products = productRepository.findPage(filter, sort, after.price, after.id, limit + 1);
+
+        String nextCursor = null;
+        if (products.size() > limit) {
+            products = products.subList(0, limit);
+            nextCursor = nextPageCursor(products.get(limit - 1), sort);
+        }
+
+        return new ProductPageDTO(enrich(products), nextCursor);
+    }
+
+    // ETag de la page demandée, calculé à partir des seules métadonnées (ID, révision) des produits :
+    // permet de répondre 304 sans enrichissement. null si un produit de la page n'est pas encore
+    // projeté, son contenu dépendant alors de user-service / media-service
+    public String getProductsPageETag(int limit, String cursor, ProductFilterDTO filter, ProductSort sort) {
+        validatePageRequest(limit, filter);
+        PagePosition after = decodePagePosition(cursor, sort);
+
+        List<Product> products = productRepository.findPageMetadata(filter, sort, after.price, after.id, limit + 1);
+
+        String nextCursor = null;
+        if (products.size() > limit) {
+            products = products.subList(0, limit);
+            nextCursor = nextPageCursor(products.get(limit - 1), sort);
+        }
+        if (!products.stream().allMatch(ProductService::isProjected)) {
+            return null;
+        }
+
+        StringBuilder versions = new StringBuilder();
+        for (Product product : products) {
+            versions.append(product.getId()).append(':').append(revisionOf(product)).append(';');
+        }
+        versions.append(nextCursor);
+        return DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ETag d'un produit : son ID et sa révision, lus sans charger ni enrichir le document.
+    // null si le produit n'existe pas ou n'est pas encore projeté
+    public String getProductETag(String id) {
+        validateMethods.validateObjectId(id);
+        return productRepository.findMetadataById(id)
+                .filter(ProductService::isProjected)
+                .map(ProductService::productETag)
+                .orElse(null);
+    }
+
+    static String productETag(Product product) {
+        return product.getId() + "-" + revisionOf(product);
+    }
+
+    // Documents antérieurs au champ revision : révision 0
+    private static long revisionOf(Product product) {
+        return product.getRevision() != null ? product.getRevision() : 0L;
+    }
+
+    private void validatePageRequest(int limit, ProductFilterDTO filter) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new IllegalArgumentException("Le prix minimum ne peut pas dépasser le prix maximum");
+        }
+        if (filter.getSellerId() != null) {
+            validateMethods.validateObjectId(filter.getSellerId());
+        }
+    }
+
+    // Position après laquelle reprendre : (prix, ID) pour les tris par prix, ID seul sinon
+    private static final class PagePosition {
+        private Double price;
+        private String id;
+    }
+
+    private static PagePosition decodePagePosition(String cursor, ProductSort sort) {
+        PagePosition position = new PagePosition();
+        if (cursor == null || cursor.isBlank()) {
+            return position;
+        }
+
+        String decoded = decodeCursor(cursor);
+        if (sort.byPrice()) {
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Curseur de pagination invalide");
+            }
+            try {
+                position.price = Double.valueOf(decoded.substring(0, separator));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide");
+            }
+            position.id = decoded.substring(separator + 1);
+        } else {
+            position.id = decoded;
+        }
+        if (!ObjectId.isValid(position.id)) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+        return position;
+    }
+
+    private static String nextPageCursor(Product last, ProductSort sort) {
+        return encodeCursor(sort.byPrice() ? last.getPrice() + "|" + last.getId() : last.getId());
+    }
+
+    // Recherche plein texte sur le nom et la description, via l'index en mémoire :
+    // seuls les produits trouvés sont lus dans Mongo, dans l'ordre de pertinence
+    public List<ProductDTO> searchProducts(String query, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Le nombre de résultats doit être compris entre 1 et " + MAX_PAGE_SIZE);
+        }
+
+        List<String> ids = productSearchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Product> found = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> found.put(product.getId(), product));
+        List<Product> products = ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return enrich(products);
+    }
+
+    // Export complet du catalogue : le curseur Mongo est lu au fil de l'eau et les produits
+    // sont enrichis puis transmis à batchWriter par paquets de EXPORT_BATCH_SIZE,
+    // la mémoire utilisée ne dépend donc pas de la taille du catalogue.
+    // afterId (ID du dernier produit reçu) permet de reprendre un export interrompu
+    public void exportProducts(String afterId, Consumer<List<ProductDTO>> batchWriter) {
+        try (Stream<Product> products = productRepository.streamAllAfter(afterId)) {
+            List<Product> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            products.forEach(product -> {
+                batch.add(product);
+                if (batch.size() == EXPORT_BATCH_SIZE) {
+                    batchWriter.accept(enrich(batch));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                batchWriter.accept(enrich(batch));
+            }
+        }
+    }
+
+    private static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+
+    // Transforme une liste de produits en DTOs.
+    // Les produits déjà projetés (sellerName et images présents) sont servis tels quels, sans appel HTTP.
+    // Les autres (créés avant la projection) sont enrichis en un seul passage : on collecte les IDs
+    // vendeurs distincts et les IDs produits, on les résout en appels groupés vers user-service et
+    // media-service, on fait la jointure en mémoire puis on enregistre leur projection
+    private List<ProductDTO> enrich(List<Product> products) {
+        List<Product> missing = products.stream()
+                .filter(product -> !isProjected(product))
                 .collect(Collectors.toList());
+
+        if (!missing.isEmpty()) {
+            project(missing);
+        }
+
+        return products.stream()
+                .map(ProductService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    static boolean isProjected(Product product) {
+        return product.getSellerName() != null && product.getImages() != null;
+    }
+
+    // Nom du vendeur à projeter : null si user-service n'a pas répondu (on retentera),
+    // UNKNOWN_SELLER s'il a répondu sans nom pour ce vendeur, pour ne pas le redemander
+    // à chaque lecture ; le prochain événement user-updated remplace ce marqueur
+    static String sellerNameOf(Product product, Map<String, String> sellerNames) {
+        if (sellerNames == null) {
+            return null;
+        }
+        String name = sellerNames.get(product.getUserId());
+        return name != null ? name : UNKNOWN_SELLER;
+    }
+
+    private void project(List<Product> products) {
+        Set<String> sellerIds = products.stream()
+                .map(Product::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<String> productIds = products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        // Les deux appels partent en parallèle ; un service qui dépasse son délai (ou échoue)
+        // donne null, et le produit est renvoyé avec des données partielles
+        CompletableFuture<Map<String, String>> sellerNamesFuture = withDeadline(
+                () -> userClient.getSellerNamesByIds(sellerIds));
+        CompletableFuture<Map<String, List<MediaDTO>>> mediasFuture = withDeadline(
+                () -> mediaClient.getMediasByProductIds(productIds));
+
+        Map<String, String> sellerNames = sellerNamesFuture.join();
+        Map<String, List<MediaDTO>> medias = mediasFuture.join();
+
+        for (Product product : products) {
+            product.setSellerName(sellerNameOf(product, sellerNames));
+            // media-service sans réponse : images laissées à null, le DTO les marque non résolues
+            product.setImages(medias != null ? toImages(medias.get(product.getId())) : null);
+
+            // On n'enregistre que ce qui a réellement été résolu : un service indisponible
+            // ne doit pas figer une projection vide
+            if (medias != null) {
+                productRepository.saveProjection(product.getId(), product.getRevision(), product.getSellerName(),
+                        product.getImages());
+            }
+        }
     }
 
-    // Récupération d'un produit par ID
+    // Pool saturé : la tâche est rejetée et traitée comme un service indisponible (null).
+    // Un appel abandonné après le délai continue dans le pool jusqu'au read-timeout du client HTTP
+    // (internal-http.read-timeout), qui le termine
+    private <T> CompletableFuture<T> withDeadline(Supplier<T> call) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, enrichmentExecutor);
+        } catch (RejectedExecutionException e) {
+            log.debug("Enrichissement rejeté, pool saturé : données partielles");
+            return CompletableFuture.completedFuture(null);
+        }
+        return future.completeOnTimeout(null, enrichmentTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> null);
+    }
+
+    // Récupération d'un produit par ID : une seule lecture Mongo pour un produit projeté
     public ProductDTO getProductById(String id) {
         validateMethods.validateObjectId(id);
-        return productRepository.findById(id)
-                .map(product -> {
-                    String name = userClient.getSellerNameById(product.getUserId());
-                    List<MediaDTO> imageUrls = mediaClient.getMediasByProductId(product.getId());
-                    if (imageUrls == null) {
-                        imageUrls = new ArrayList<>(); // Si aucune image n'est trouvée, on initialise une liste vide
-                    }
-
-                    return toDTO(product, name, imageUrls);
-                })
+        Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        return enrich(List.of(product)).get(0);
+    }
+
+    // --- Mise à jour de la projection à partir des événements Kafka ---
+
+    public void updateSellerName(String userId, String sellerName) {
+        productRepository.updateSellerName(userId, sellerName);
+    }
+
+    public void upsertImage(MediaDTO media) {
+        productRepository.upsertImage(media.getProductId(), new ProductImage(media.getId(), media.getImagePath()));
+    }
+
+    public void removeImage(MediaDTO media) {
+        productRepository.removeImage(media.getProductId(), media.getId());
     }
 
     public ProductDTO updateProduct(String id, ProductUpdateDTO updatedProduct, String email, String role) {
@@ -135,12 +476,16 @@ public class ProductService {
             throw new IllegalArgumentException("Vous n'êtes pas autorisé à modifier ce produit");
         }
 
+        String name = null;
         if (updatedProduct.getName() != null && !updatedProduct.getName().isBlank()) {
-            product.setName(updatedProduct.getName());
+            name = updatedProduct.getName();
+            product.setName(name);
         }
 
+        String description = null;
         if (updatedProduct.getDescription() != null && !updatedProduct.getDescription().isBlank()) {
-            product.setDescription(updatedProduct.getDescription());
+            description = updatedProduct.getDescription();
+            product.setDescription(description);
         }
 
         if (updatedProduct.getPrice() != null) {
@@ -153,7 +498,13 @@ public class ProductService {
 
         ValidateMethods.validateProduct(product);
 
-        productRepository.save(product);
+        // Seuls les champs modifiés sont écrits : réécrire le document lu effacerait les images
+        // ajoutées ou retirées entre-temps par les événements media-added / media-removed
+        if (!productRepository.updateFields(id, name, description, updatedProduct.getPrice(),
+                updatedProduct.getQuantity())) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        indexProduct(product);
 
         return getProductById(product.getId());
     }
@@ -176,10 +527,50 @@ public class ProductService {
         mediaClient.deleteMediaByProductId(id);
 
         productRepository.deleteById(id);
+        removeFromIndex(id);
+    }
+
+    // Index de recherche : mis à jour ici tout de suite, puis sur les autres instances par Kafka
+    private void indexProduct(Product product) {
+        productSearchIndex.index(product);
+        kafkaProductProducer.sendProductIndexedEvent(product);
+    }
+
+    private void removeFromIndex(String productId) {
+        productSearchIndex.remove(productId);
+        kafkaProductProducer.sendProductRemovedEvent(productId);
+    }
+
+    // Partagé avec ReactiveProductService
+    // Aucune image trouvée pour le produit : liste vide
+    static List<ProductImage> toImages(List<MediaDTO> medias) {
+        if (medias == null) {
+            return new ArrayList<>();
+        }
+        return medias.stream()
+                .map(media -> new ProductImage(media.getId(), media.getImagePath()))
+                .collect(Collectors.toList());
+    }
+
+    static ProductDTO toDTO(Product product) {
+        List<MediaDTO> imageUrls = new ArrayList<>();
+        if (product.getImages() != null) {
+            for (ProductImage image : product.getImages()) {
+                MediaDTO media = new MediaDTO();
+                media.setId(image.getMediaId());
+                media.setImagePath(image.getImagePath());
+                media.setProductId(product.getId());
+                imageUrls.add(media);
+            }
+        }
+        String sellerName = UNKNOWN_SELLER.equals(product.getSellerName()) ? null : product.getSellerName();
+        ProductDTO dto = toDTO(product, sellerName, imageUrls);
+        dto.setImagesResolved(product.getImages() != null);
+        return dto;
     }
 
     // 🔒 Masque les données sensibles
-    private ProductDTO toDTO(Product product, String sellerName, List<MediaDTO> imageUrls) {
+    private static ProductDTO toDTO(Product product, String sellerName, List<MediaDTO> imageUrls) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
@@ -202,36 +593,24 @@ public class ProductService {
             throw new ResourceNotFoundException("Aucun produit trouvé pour cet utilisateur");
         }
 
-        return products.stream()
-                .map(product -> {
-                    String name = userClient.getSellerNameById(product.getUserId());
-                    List<MediaDTO> imageUrls = mediaClient.getMediasByProductId(product.getId());
-                    if (imageUrls == null) {
-                        imageUrls = new ArrayList<>(); // Si aucune image n'est trouvée, on initialise une liste vide
-                    }
-
-                    return toDTO(product, name, imageUrls);
-                })
-                .collect(Collectors.toList());
+        return enrich(products);
     }
 
     public boolean validateProduct(String productId, String email) {
 
         // Appel à user-service pour vérifier l'utilisateur
         UserDTO user = userClient.getUserByEmail(email);
-        System.out.println("User: " + user);
         if (productId == null || productId.isEmpty() || email == null || email.isEmpty() || user == null) {
             return false;
         }
 
         Optional<Product> product = productRepository.findById(productId);
-        System.out.println("Product: " + product);
         if (product.isEmpty()) {
             return false;
         }
 
         if (!product.get().getUserId().equals(user.getId())) {
-            System.out.println("Product does not belong to user: " + user.getId());
+            log.debug("Produit {} refusé : il n'appartient pas à l'utilisateur {}", productId, user.getId());
             return false;
         }
 
@@ -253,6 +632,7 @@ public class ProductService {
 
         // Supprimer les produits
         productRepository.deleteAll(products);
-        System.out.println("Tous les produits de l'utilisateur avec ID " + userId + " ont été supprimés.");
+        products.forEach(product -> removeFromIndex(product.getId()));
+        log.info("Tous les produits de l'utilisateur avec ID {} ont été supprimés.", userId);
     }
 }
@@ -0,0 +1,64 @@
+package com.example.buy01.product.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.buy01.product.dto.MediaDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Pendant non bloquant de MediaClient (lecture seule), pour le chemin de lecture réactif
+@Component
+public class ReactiveMediaClient {
+
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${internal.token}")
+    private String internalToken;
+
+    // Médias groupés par ID produit ; Mono vide si media-service est injoignable
+    public Mono<Map<String, List<MediaDTO>>> getMediasByProductIds(Collection<String> productIds) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(productIds));
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinctIds.size())));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(this::fetchMedias)
+                .reduce(new HashMap<String, List<MediaDTO>>(), (medias, chunk) -> {
+                    medias.putAll(chunk);
+                    return medias;
+                })
+                .<Map<String, List<MediaDTO>>>map(medias -> medias)
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Map<String, List<MediaDTO>>> fetchMedias(List<String> chunk) {
+        return webClientBuilder.build()
+                .post()
+                .uri("http://media-service/api/media/internal/get/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-INTERNAL-TOKEN", internalToken)
+                .bodyValue(chunk)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, List<MediaDTO>>>() {
+                });
+    }
+}
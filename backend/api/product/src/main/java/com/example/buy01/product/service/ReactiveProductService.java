@@ -0,0 +1,122 @@
+package com.example.buy01.product.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.buy01.product.dto.MediaDTO;
+import com.example.buy01.product.dto.ProductDTO;
+import com.example.buy01.product.exception.ResourceNotFoundException;
+import com.example.buy01.product.model.Product;
+import com.example.buy01.product.repository.ReactiveProductRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Chemin de lecture non bloquant (catalogue et détail produit).
+// Même logique que ProductService#enrich, mais sans tenir de thread pendant les appels
+// Mongo / user-service / media-service ; les écritures restent sur ProductService
+@Service
+public class ReactiveProductService {
+
+    // Nombre de produits enrichis ensemble lors du parcours du catalogue
+    private static final int ENRICH_BATCH_SIZE = 500;
+
+    @Autowired
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Autowired
+    private ReactiveUserClient reactiveUserClient;
+
+    @Autowired
+    private ReactiveMediaClient reactiveMediaClient;
+
+    @Autowired
+    private ValidateMethods validateMethods;
+
+    @Value("${product.enrichment.timeout-ms:800}")
+    private long enrichmentTimeoutMs;
+
+    public Flux<ProductDTO> getAllProducts() {
+        return reactiveProductRepository.findAll()
+                .buffer(ENRICH_BATCH_SIZE)
+                .concatMap(this::enrich);
+    }
+
+    public Mono<ProductDTO> getProductById(String id) {
+        validateMethods.validateObjectId(id);
+        return reactiveProductRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product not found")))
+                .flatMapMany(product -> enrich(List.of(product)))
+                .next();
+    }
+
+    // Voir ProductService#getProductETag : vide si le produit n'existe pas ou n'est pas encore projeté
+    public Mono<String> getProductETag(String id) {
+        validateMethods.validateObjectId(id);
+        return reactiveProductRepository.findMetadataById(id)
+                .filter(ProductService::isProjected)
+                .map(ProductService::productETag);
+    }
+
+    private Flux<ProductDTO> enrich(List<Product> products) {
+        List<Product> missing = products.stream()
+                .filter(product -> !ProductService.isProjected(product))
+                .collect(Collectors.toList());
+
+        Mono<Void> projection = missing.isEmpty() ? Mono.empty() : project(missing);
+
+        return projection.thenMany(Flux.fromIterable(products).map(ProductService::toDTO));
+    }
+
+    private Mono<Void> project(List<Product> products) {
+        Set<String> sellerIds = products.stream()
+                .map(Product::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<String> productIds = products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        // Les deux appels partent en parallèle ; un service en retard ou en erreur donne
+        // Optional.empty() et le produit est renvoyé avec des données partielles
+        Mono<Optional<Map<String, String>>> sellerNames = withDeadline(
+                reactiveUserClient.getSellerNamesByIds(sellerIds));
+        Mono<Optional<Map<String, List<MediaDTO>>>> medias = withDeadline(
+                reactiveMediaClient.getMediasByProductIds(productIds));
+
+        return Mono.zip(sellerNames, medias)
+                .flatMapMany(resolved -> Flux.fromIterable(products)
+                        .flatMap(product -> apply(product, resolved.getT1(), resolved.getT2())))
+                .then();
+    }
+
+    private Mono<Void> apply(Product product, Optional<Map<String, String>> sellerNames,
+            Optional<Map<String, List<MediaDTO>>> medias) {
+        product.setSellerName(ProductService.sellerNameOf(product, sellerNames.orElse(null)));
+        product.setImages(medias.map(found -> ProductService.toImages(found.get(product.getId()))).orElse(null));
+
+        // Comme côté bloquant : pas de projection figée si media-service n'a pas répondu
+        if (medias.isEmpty()) {
+            return Mono.empty();
+        }
+        return reactiveProductRepository.saveProjection(product.getId(), product.getRevision(), product.getSellerName(),
+                product.getImages())
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private <T> Mono<Optional<T>> withDeadline(Mono<T> call) {
+        return call.timeout(Duration.ofMillis(enrichmentTimeoutMs))
+                .map(Optional::of)
+                .onErrorResume(e -> Mono.empty())
+                .defaultIfEmpty(Optional.empty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.buy01.product.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Pendant non bloquant de UserClient, pour le chemin de lecture réactif
+@Component
+public class ReactiveUserClient {
+
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private SellerNameCache sellerNameCache;
+
+    @Value("${internal.token}")
+    private String internalToken;
+
+    // Même contrat que UserClient#getSellerNamesByIds : cache local d'abord, puis l'endpoint
+    // groupé par paquets. Mono vide si user-service est injoignable
+    public Mono<Map<String, String>> getSellerNamesByIds(Collection<String> userIds) {
+        Map<String, String> cached = new HashMap<>(sellerNameCache.getAll(new LinkedHashSet<>(userIds)));
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        distinctIds.removeAll(cached.keySet());
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinctIds.size())));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(this::fetchNames)
+                .doOnNext(sellerNameCache::putAll)
+                .reduce(cached, (names, chunk) -> {
+                    names.putAll(chunk);
+                    return names;
+                })
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Map<String, String>> fetchNames(List<String> chunk) {
+        return webClientBuilder.build()
+                .post()
+                .uri("http://user-service/api/users/internal/names")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-INTERNAL-TOKEN", internalToken)
+                .bodyValue(chunk)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, String>>() {
+                });
+    }
+}
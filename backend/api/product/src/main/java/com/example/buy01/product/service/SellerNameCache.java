@@ -0,0 +1,57 @@
+package com.example.buy01.product.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache local (taille bornée + TTL) des noms de vendeurs devant UserClient.
+// Invalidé par les événements user-updated / user-deleted (voir KafkaUserCacheConsumer) ;
+// hits, misses et évictions sont exposés sous cache.* avec le tag cache=seller-names
+@Component
+public class SellerNameCache {
+
+    private final Cache<String, String> cache;
+
+    public SellerNameCache(
+            @Value("${user-client.seller-name-cache.max-size:10000}") long maxSize,
+            @Value("${user-client.seller-name-cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "seller-names");
+    }
+
+    public String get(String userId) {
+        return cache.getIfPresent(userId);
+    }
+
+    public Map<String, String> getAll(Collection<String> userIds) {
+        return cache.getAllPresent(userIds);
+    }
+
+    public void put(String userId, String name) {
+        if (userId != null && name != null) {
+            cache.put(userId, name);
+        }
+    }
+
+    public void putAll(Map<String, String> names) {
+        names.forEach(this::put);
+    }
+
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+}
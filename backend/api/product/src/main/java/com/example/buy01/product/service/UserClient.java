@@ -4,8 +4,10 @@ import org.springframework.http.HttpHeaders;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -13,12 +15,25 @@ import org.springframework.web.client.RestTemplate;
 
 import com.example.buy01.product.dto.UserDTO;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class UserClient {
 
+    // Taille des paquets envoyés à l'endpoint groupé (le serveur en accepte jusqu'à 5000)
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private SellerNameCache sellerNameCache;
+
     @Value("${internal.token}")
     private String internalToken;
 
@@ -45,6 +60,10 @@ public class UserClient {
     }
 
     public String getSellerNameById(String userId) {
+        String cached = sellerNameCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
         try {
             String url = "http://user-service/api/users/internal/name/" + userId;
 
@@ -59,9 +78,47 @@ public class UserClient {
                     requestEntity,
                     String.class);
 
+            sellerNameCache.put(userId, response.getBody());
             return response.getBody();
         } catch (RestClientException e) {
             return null;
         }
     }
+
+    // Résout le nom de plusieurs vendeurs via l'endpoint groupé de user-service,
+    // par paquets de BULK_CHUNK_SIZE IDs distincts ; seuls les IDs absents du cache local
+    // sont demandés. null si user-service est injoignable
+    public Map<String, String> getSellerNamesByIds(Collection<String> userIds) {
+        Map<String, String> names = new HashMap<>(sellerNameCache.getAll(new LinkedHashSet<>(userIds)));
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        distinctIds.removeAll(names.keySet());
+
+        for (int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            List<String> chunk = distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinctIds.size()));
+            try {
+                String url = "http://user-service/api/users/internal/names";
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.set("X-INTERNAL-TOKEN", internalToken);
+
+                HttpEntity<List<String>> requestEntity = new HttpEntity<>(chunk, headers);
+
+                ResponseEntity<Map<String, String>> response = restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        requestEntity,
+                        new ParameterizedTypeReference<Map<String, String>>() {
+                        });
+
+                if (response.getBody() != null) {
+                    sellerNameCache.putAll(response.getBody());
+                    names.putAll(response.getBody());
+                }
+            } catch (RestClientException e) {
+                return null;
+            }
+        }
+        return names;
+    }
 }
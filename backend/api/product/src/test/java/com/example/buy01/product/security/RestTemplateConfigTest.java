@@ -0,0 +1,86 @@
+package com.example.buy01.product.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.loadbalancer.BlockingLoadBalancerInterceptor;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.buy01.product.ProductApplication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Le RestTemplate @LoadBalanced des appels internes passe par le pool HttpClient 5 configuré
+@SpringBootTest(classes = ProductApplication.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "eureka.client.enabled=false",
+    "spring.autoconfigure.exclude=org.springframework.cloud.netflix.eureka.EurekaClientAutoConfiguration",
+    "internal-http.max-total=37",
+    "internal-http.max-per-route=11",
+    "internal-http.connect-timeout=1500ms",
+    "internal-http.read-timeout=4s",
+    "internal-http.acquire-timeout=700ms"
+})
+class RestTemplateConfigTest {
+
+    @Autowired
+    @LoadBalanced
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private CloseableHttpClient internalHttpClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loadBalancedRestTemplateUsesPooledHttpClient() {
+        assertTrue(restTemplate.getInterceptors().stream().anyMatch(BlockingLoadBalancerInterceptor.class::isInstance));
+        // getRequestFactory() renvoie la fabrique des intercepteurs : on lit celle qui est enveloppée
+        Object requestFactory = ReflectionTestUtils.getField(restTemplate, "requestFactory");
+        HttpComponentsClientHttpRequestFactory factory =
+                assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, requestFactory);
+        assertSame(internalHttpClient, factory.getHttpClient());
+    }
+
+    @Test
+    void poolLimitsAndTimeoutsFollowConfiguration() {
+        PoolingHttpClientConnectionManager connectionManager = assertInstanceOf(PoolingHttpClientConnectionManager.class,
+                ReflectionTestUtils.getField(internalHttpClient, "connManager"));
+        assertEquals(37, connectionManager.getMaxTotal());
+        assertEquals(11, connectionManager.getDefaultMaxPerRoute());
+
+        ConnectionConfig connectionConfig = ReflectionTestUtils.invokeMethod(connectionManager,
+                "resolveConnectionConfig", new HttpRoute(new HttpHost("http", "user-service", 80)));
+        assertEquals(Timeout.ofMilliseconds(1500), connectionConfig.getConnectTimeout());
+        assertEquals(Timeout.ofSeconds(4), connectionConfig.getSocketTimeout());
+        assertEquals(Timeout.ofMilliseconds(700),
+                ((Configurable) internalHttpClient).getConfig().getConnectionRequestTimeout());
+    }
+
+    @Test
+    void poolMetricsAreRegistered() {
+        assertEquals(37, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "internal").gauge().value());
+        assertEquals(11, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "internal").gauge().value());
+    }
+}
@@ -2,13 +2,19 @@ package com.example.buy01.product.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,16 +22,25 @@ import static org.mockito.Mockito.when;
 import com.example.buy01.product.dto.MediaDTO;
 import com.example.buy01.product.dto.ProductCreateDTO;
 import com.example.buy01.product.dto.ProductDTO;
+import com.example.buy01.product.dto.ProductFilterDTO;
+import com.example.buy01.product.dto.ProductPageDTO;
+import com.example.buy01.product.dto.ProductSort;
 import com.example.buy01.product.dto.ProductUpdateDTO;
 import com.example.buy01.product.dto.UserDTO;
+import com.example.buy01.product.event.KafkaProductProducer;
 import com.example.buy01.product.exception.ResourceNotFoundException;
 import com.example.buy01.product.model.Product;
+import com.example.buy01.product.model.ProductImage;
 import com.example.buy01.product.repository.ProductRepository;
+import com.example.buy01.product.security.EnrichmentExecutorConfig;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
@@ -34,12 +49,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.multipart.MultipartFile;
 
-@SpringBootTest(classes = { ProductService.class })
+@SpringBootTest(classes = { ProductService.class, ProductSearchIndex.class, EnrichmentExecutorConfig.class }, properties = {
+                "product.enrichment.timeout-ms=200" })
 @ExtendWith(SpringExtension.class)
 class ProductServiceTest {
 
@@ -55,9 +72,15 @@ class ProductServiceTest {
         @MockitoBean
         private ProductRepository productRepository;
 
+        @MockitoBean
+        private KafkaProductProducer kafkaProductProducer;
+
         @Autowired
         private ProductService productService;
 
+        @Autowired
+        private ProductSearchIndex productSearchIndex;
+
         /**
          * Test
          * {@link ProductService#createProduct(ProductCreateDTO, String, String, MultipartFile[])}.
@@ -226,21 +249,56 @@ class ProductServiceTest {
                 products.add(product2);
 
                 when(productRepository.findAll()).thenReturn(products);
-                doNothing().when(validateMethods).validateObjectId(anyString());
-                when(productRepository.findById("product1")).thenReturn(Optional.of(product1));
-                when(productRepository.findById("product2")).thenReturn(Optional.of(product2));
-                when(userClient.getSellerNameById("user1")).thenReturn("Seller 1");
-                when(userClient.getSellerNameById("user2")).thenReturn("Seller 2");
-                when(mediaClient.getMediasByProductId(anyString())).thenReturn(new ArrayList<>());
+                when(userClient.getSellerNamesByIds(anyCollection()))
+                                .thenReturn(Map.of("user1", "Seller 1", "user2", "Seller 2"));
+                when(mediaClient.getMediasByProductIds(anyCollection())).thenReturn(new HashMap<>());
 
                 // Act
                 List<ProductDTO> result = productService.getAllProducts();
 
                 // Assert
                 verify(productRepository).findAll();
+                verify(productRepository, never()).findById(anyString());
+                verify(userClient, times(1)).getSellerNamesByIds(anyCollection());
+                verify(mediaClient, times(1)).getMediasByProductIds(anyCollection());
+                verify(userClient, never()).getSellerNameById(anyString());
                 assertEquals(2, result.size());
                 assertEquals("product1", result.get(0).getId());
                 assertEquals("product2", result.get(1).getId());
+                assertEquals("Seller 1", result.get(0).getSellerName());
+                assertEquals("Seller 2", result.get(1).getSellerName());
+                assertTrue(result.get(0).getImageUrls().isEmpty());
+                assertTrue(result.get(0).isImagesResolved());
+        }
+
+        /**
+         * Test {@link ProductService#getAllProducts()}.
+         *
+         * <ul>
+         * <li>Given media-service unavailable.
+         * <li>Then return products with images marked unresolved, without saving the projection.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getAllProducts(); given media-service unavailable; then mark images unresolved")
+        void testGetAllProducts_givenMediaServiceUnavailable_thenMarkImagesUnresolved() {
+                // Arrange
+                Product product = new Product();
+                product.setId("product1");
+                product.setUserId("user1");
+
+                when(productRepository.findAll()).thenReturn(List.of(product));
+                when(userClient.getSellerNamesByIds(anyCollection())).thenReturn(Map.of("user1", "Seller 1"));
+                when(mediaClient.getMediasByProductIds(anyCollection())).thenThrow(new RuntimeException("timeout"));
+
+                // Act
+                List<ProductDTO> result = productService.getAllProducts();
+
+                // Assert
+                assertEquals("Seller 1", result.get(0).getSellerName());
+                assertTrue(result.get(0).getImageUrls().isEmpty());
+                assertFalse(result.get(0).isImagesResolved());
+                verify(productRepository, never()).saveProjection(anyString(), any(), any(), anyList());
         }
 
         /**
@@ -266,6 +324,102 @@ class ProductServiceTest {
                 assertTrue(result.isEmpty());
         }
 
+        /**
+         * Test {@link ProductService#getProductsPage(int, String)}.
+         *
+         * <ul>
+         * <li>Given more products than the page size.
+         * <li>Then return one page and a cursor that resumes after its last product.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductsPage; given more products than limit; then return page and next cursor")
+        void testGetProductsPage_givenMoreProductsThanLimit_thenReturnNextCursor() {
+                // Arrange
+                List<Product> products = new ArrayList<>();
+                for (String id : List.of("64b7f0c2a1b2c3d4e5f60701", "64b7f0c2a1b2c3d4e5f60702",
+                                "64b7f0c2a1b2c3d4e5f60703")) {
+                        Product product = new Product();
+                        product.setId(id);
+                        product.setUserId("user1");
+                        products.add(product);
+                }
+
+                when(productRepository.findAllBy(any(Pageable.class))).thenReturn(products);
+                when(productRepository.findByIdGreaterThan(eq("64b7f0c2a1b2c3d4e5f60702"), any(Pageable.class)))
+                                .thenReturn(List.of(products.get(2)));
+
+                // Act
+                ProductPageDTO firstPage = productService.getProductsPage(2, null);
+                ProductPageDTO secondPage = productService.getProductsPage(2, firstPage.getNextCursor());
+
+                // Assert
+                assertEquals(2, firstPage.getItems().size());
+                assertEquals("64b7f0c2a1b2c3d4e5f60702", firstPage.getItems().get(1).getId());
+                assertNotNull(firstPage.getNextCursor());
+                assertEquals(1, secondPage.getItems().size());
+                assertEquals("64b7f0c2a1b2c3d4e5f60703", secondPage.getItems().get(0).getId());
+                assertNull(secondPage.getNextCursor());
+        }
+
+        /**
+         * Test {@link ProductService#getProductsPage(int, String, ProductFilterDTO, ProductSort)}.
+         *
+         * <ul>
+         * <li>Given an in-stock filter sorted by ascending price.
+         * <li>Then resume the next page after the last (price, id).
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductsPage; given filter and price sort; then resume after last price and id")
+        void testGetProductsPage_givenFilterAndPriceSort_thenResumeAfterLastPriceAndId() {
+                // Arrange
+                ProductFilterDTO filter = new ProductFilterDTO(null, 50.0, true, null);
+                List<Product> products = new ArrayList<>();
+                for (String id : List.of("64b7f0c2a1b2c3d4e5f60701", "64b7f0c2a1b2c3d4e5f60702",
+                                "64b7f0c2a1b2c3d4e5f60703")) {
+                        Product product = new Product();
+                        product.setId(id);
+                        product.setPrice(10.5);
+                        product.setSellerName("John Doe");
+                        product.setImages(new ArrayList<>());
+                        products.add(product);
+                }
+
+                when(productRepository.findPage(filter, ProductSort.PRICE_ASC, null, null, 3)).thenReturn(products);
+                when(productRepository.findPage(filter, ProductSort.PRICE_ASC, 10.5, "64b7f0c2a1b2c3d4e5f60702", 3))
+                                .thenReturn(List.of(products.get(2)));
+
+                // Act
+                ProductPageDTO firstPage = productService.getProductsPage(2, null, filter, ProductSort.PRICE_ASC);
+                ProductPageDTO secondPage = productService.getProductsPage(2, firstPage.getNextCursor(), filter,
+                                ProductSort.PRICE_ASC);
+
+                // Assert
+                assertEquals(2, firstPage.getItems().size());
+                assertEquals(1, secondPage.getItems().size());
+                assertEquals("64b7f0c2a1b2c3d4e5f60703", secondPage.getItems().get(0).getId());
+                assertNull(secondPage.getNextCursor());
+                assertThrows(IllegalArgumentException.class,
+                                () -> productService.getProductsPage(2, firstPage.getNextCursor(), filter, ProductSort.NEWEST));
+        }
+
+        /**
+         * Test {@link ProductService#getProductsPage(int, String)}.
+         *
+         * <ul>
+         * <li>Given a cursor that was not issued by the service.
+         * <li>Then throw {@link IllegalArgumentException}.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductsPage; given invalid cursor; then throw IllegalArgumentException")
+        void testGetProductsPage_givenInvalidCursor_thenThrowIllegalArgumentException() {
+                assertThrows(IllegalArgumentException.class, () -> productService.getProductsPage(10, "not-a-cursor"));
+                assertThrows(IllegalArgumentException.class,
+                                () -> productService.getProductsPage(ProductService.MAX_PAGE_SIZE + 1, null));
+        }
+
         /**
          * Test {@link ProductService#getProductById(String)}.
          *
@@ -287,16 +441,11 @@ class ProductServiceTest {
                 product.setQuantity(10);
                 product.setUserId(userId);
 
-                MediaDTO mediaDTO = new MediaDTO();
-                mediaDTO.setId("media123");
-                mediaDTO.setImagePath("http://example.com/image.jpg");
-                List<MediaDTO> mediaList = new ArrayList<>();
-                mediaList.add(mediaDTO);
+                product.setSellerName("John Doe");
+                product.setImages(List.of(new ProductImage("media123", "http://example.com/image.jpg")));
 
                 doNothing().when(validateMethods).validateObjectId(productId);
                 when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-                when(userClient.getSellerNameById(userId)).thenReturn("John Doe");
-                when(mediaClient.getMediasByProductId(productId)).thenReturn(mediaList);
 
                 // Act
                 ProductDTO result = productService.getProductById(productId);
@@ -304,12 +453,279 @@ class ProductServiceTest {
                 // Assert
                 verify(validateMethods).validateObjectId(productId);
                 verify(productRepository).findById(productId);
-                verify(userClient).getSellerNameById(userId);
-                verify(mediaClient).getMediasByProductId(productId);
+                verify(userClient, never()).getSellerNamesByIds(anyCollection());
+                verify(mediaClient, never()).getMediasByProductIds(anyCollection());
                 assertEquals(productId, result.getId());
                 assertEquals("Test Product", result.getName());
                 assertEquals("John Doe", result.getSellerName());
                 assertEquals(1, result.getImageUrls().size());
+                assertEquals("media123", result.getImageUrls().get(0).getId());
+        }
+
+        /**
+         * Test {@link ProductService#getProductById(String)}.
+         *
+         * <ul>
+         * <li>Given a product created before the read projection existed.
+         * <li>Then enrich it from user-service and media-service and save its projection.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductById; given product without projection; then enrich and save projection")
+        void testGetProductById_givenProductWithoutProjection_thenSaveProjection() {
+                // Arrange
+                String productId = "product123";
+                String userId = "user123";
+                Product product = new Product();
+                product.setId(productId);
+                product.setName("Test Product");
+                product.setUserId(userId);
+
+                MediaDTO mediaDTO = new MediaDTO();
+                mediaDTO.setId("media123");
+                mediaDTO.setImagePath("http://example.com/image.jpg");
+
+                doNothing().when(validateMethods).validateObjectId(productId);
+                when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+                when(userClient.getSellerNamesByIds(anyCollection())).thenReturn(Map.of(userId, "John Doe"));
+                when(mediaClient.getMediasByProductIds(anyCollection())).thenReturn(Map.of(productId, List.of(mediaDTO)));
+
+                // Act
+                ProductDTO result = productService.getProductById(productId);
+
+                // Assert
+                verify(productRepository).saveProjection(eq(productId), isNull(), eq("John Doe"), anyList());
+                assertEquals("John Doe", result.getSellerName());
+                assertEquals(1, result.getImageUrls().size());
+        }
+
+        /**
+         * Test {@link ProductService#getProductById(String)}.
+         *
+         * <ul>
+         * <li>Given a seller that user-service answers for without a name.
+         * <li>Then save a placeholder projection and serve later reads without calling user-service.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductById; given unknown seller; then save placeholder projection and stop asking")
+        void testGetProductById_givenUnknownSeller_thenSavePlaceholderProjection() {
+                // Arrange
+                String productId = "product123";
+                Product product = new Product();
+                product.setId(productId);
+                product.setName("Test Product");
+                product.setUserId("deletedUser");
+                product.setRevision(4L);
+
+                doNothing().when(validateMethods).validateObjectId(productId);
+                when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+                when(userClient.getSellerNamesByIds(anyCollection())).thenReturn(Map.of());
+                when(mediaClient.getMediasByProductIds(anyCollection())).thenReturn(Map.of());
+
+                // Act
+                ProductDTO first = productService.getProductById(productId);
+                ProductDTO second = productService.getProductById(productId);
+
+                // Assert
+                verify(productRepository).saveProjection(eq(productId), eq(4L), eq(ProductService.UNKNOWN_SELLER), anyList());
+                verify(userClient, times(1)).getSellerNamesByIds(anyCollection());
+                assertNull(first.getSellerName());
+                assertNull(second.getSellerName());
+        }
+
+        /**
+         * Test {@link ProductService#searchProducts(String, int)}.
+         *
+         * <ul>
+         * <li>Given indexed products matching the query by prefix and without accents.
+         * <li>Then return them ordered by relevance, name matches first.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test searchProducts; given indexed products; then return them by relevance")
+        void testSearchProducts_givenIndexedProducts_thenReturnByRelevance() {
+                // Arrange
+                Product inName = new Product();
+                inName.setId("product1");
+                inName.setName("Téléphone portable");
+                inName.setSellerName("John Doe");
+                inName.setImages(new ArrayList<>());
+
+                Product inDescription = new Product();
+                inDescription.setId("product2");
+                inDescription.setName("Coque");
+                inDescription.setDescription("Protection pour telephone");
+                inDescription.setSellerName("John Doe");
+                inDescription.setImages(new ArrayList<>());
+
+                Product other = new Product();
+                other.setId("product3");
+                other.setName("Chaise");
+                other.setSellerName("John Doe");
+                other.setImages(new ArrayList<>());
+
+                productSearchIndex.index(inName);
+                productSearchIndex.index(inDescription);
+                productSearchIndex.index(other);
+                when(productRepository.findAllById(List.of("product1", "product2")))
+                                .thenReturn(List.of(inDescription, inName));
+
+                // Act
+                List<ProductDTO> result = productService.searchProducts("TELEPH", 10);
+
+                // Assert
+                assertEquals(2, result.size());
+                assertEquals("product1", result.get(0).getId());
+                assertEquals("product2", result.get(1).getId());
+
+                productSearchIndex.remove("product1");
+                productSearchIndex.remove("product2");
+                productSearchIndex.remove("product3");
+                assertTrue(productService.searchProducts("teleph", 10).isEmpty());
+        }
+
+        /**
+         * Test {@link ProductSearchIndex#rebuild()}.
+         *
+         * <ul>
+         * <li>Given a product deleted while the catalogue is being read.
+         * <li>Then the rebuilt index replaces the old one without the deleted product.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test rebuild; given product deleted during rebuild; then swap index without it")
+        void testRebuild_givenProductDeletedDuringRebuild_thenSwapIndexWithoutIt() {
+                // Arrange
+                Product stale = new Product();
+                stale.setId("product1");
+                stale.setName("Lampe");
+
+                Product deleted = new Product();
+                deleted.setId("product2");
+                deleted.setName("Lampe de bureau");
+
+                Product kept = new Product();
+                kept.setId("product3");
+                kept.setName("Lampe de chevet");
+
+                productSearchIndex.index(stale);
+                // La suppression arrive après la lecture Mongo du produit, avant son indexation
+                when(productRepository.streamAllAfter(null)).thenReturn(Stream.of(deleted, kept)
+                                .peek(product -> {
+                                        if (product == deleted) {
+                                                productSearchIndex.remove(deleted.getId());
+                                        }
+                                }));
+
+                // Act
+                productSearchIndex.rebuild();
+
+                // Assert
+                assertEquals(List.of("product3"), productSearchIndex.search("lampe", 10));
+
+                productSearchIndex.remove("product3");
+        }
+
+        /**
+         * Test {@link ProductService#exportProducts(String, java.util.function.Consumer)}.
+         *
+         * <ul>
+         * <li>Given more products than one export batch.
+         * <li>Then write them in batches of {@link ProductService#EXPORT_BATCH_SIZE}.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test exportProducts; given more products than a batch; then write several batches")
+        void testExportProducts_givenMoreProductsThanBatch_thenWriteSeveralBatches() {
+                // Arrange
+                List<Product> products = new ArrayList<>();
+                for (int i = 0; i < ProductService.EXPORT_BATCH_SIZE + 1; i++) {
+                        Product product = new Product();
+                        product.setId("product" + i);
+                        product.setUserId("user123");
+                        product.setSellerName("John Doe");
+                        product.setImages(new ArrayList<>());
+                        products.add(product);
+                }
+                when(productRepository.streamAllAfter(null)).thenReturn(products.stream());
+
+                // Act
+                List<Integer> batchSizes = new ArrayList<>();
+                productService.exportProducts(null, batch -> batchSizes.add(batch.size()));
+
+                // Assert
+                assertEquals(List.of(ProductService.EXPORT_BATCH_SIZE, 1), batchSizes);
+        }
+
+        /**
+         * Test {@link ProductService#getProductById(String)}.
+         *
+         * <ul>
+         * <li>Given user-service missing its deadline.
+         * <li>Then return the product with media but without seller name.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductById; given slow user-service; then return partial product")
+        void testGetProductById_givenSlowUserService_thenReturnPartialProduct() {
+                // Arrange
+                String productId = "product123";
+                Product product = new Product();
+                product.setId(productId);
+                product.setName("Test Product");
+                product.setUserId("user123");
+
+                MediaDTO mediaDTO = new MediaDTO();
+                mediaDTO.setId("media123");
+                mediaDTO.setImagePath("http://example.com/image.jpg");
+
+                doNothing().when(validateMethods).validateObjectId(productId);
+                when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+                when(userClient.getSellerNamesByIds(anyCollection())).thenAnswer(invocation -> {
+                        Thread.sleep(1000);
+                        return Map.of("user123", "John Doe");
+                });
+                when(mediaClient.getMediasByProductIds(anyCollection())).thenReturn(Map.of(productId, List.of(mediaDTO)));
+
+                // Act
+                ProductDTO result = productService.getProductById(productId);
+
+                // Assert
+                assertNull(result.getSellerName());
+                assertEquals(1, result.getImageUrls().size());
+        }
+
+        /**
+         * Test {@link ProductService#getProductETag(String)}.
+         *
+         * <ul>
+         * <li>Given a projected and an unprojected product.
+         * <li>Then derive the ETag from the revision only for the projected one, without enrichment.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductETag; given projected and unprojected products; then ETag only for projected")
+        void testGetProductETag() {
+                // Arrange
+                Product projected = new Product();
+                projected.setId("product1");
+                projected.setRevision(3L);
+                projected.setSellerName("John Doe");
+                projected.setImages(new ArrayList<>());
+
+                Product unprojected = new Product();
+                unprojected.setId("product2");
+
+                doNothing().when(validateMethods).validateObjectId(anyString());
+                when(productRepository.findMetadataById("product1")).thenReturn(Optional.of(projected));
+                when(productRepository.findMetadataById("product2")).thenReturn(Optional.of(unprojected));
+
+                // Act and Assert
+                assertEquals("product1-3", productService.getProductETag("product1"));
+                assertNull(productService.getProductETag("product2"));
+                verify(userClient, never()).getSellerNamesByIds(anyCollection());
+                verify(mediaClient, never()).getMediasByProductIds(anyCollection());
         }
 
         /**
@@ -363,14 +779,6 @@ class ProductServiceTest {
                 existingProduct.setQuantity(5);
                 existingProduct.setUserId(userId);
 
-                Product updatedProduct = new Product();
-                updatedProduct.setId(productId);
-                updatedProduct.setName("Updated Product");
-                updatedProduct.setDescription("Updated Description");
-                updatedProduct.setPrice(75.00);
-                updatedProduct.setQuantity(8);
-                updatedProduct.setUserId(userId);
-
                 ProductUpdateDTO updateDTO = new ProductUpdateDTO();
                 updateDTO.setName("Updated Product");
                 updateDTO.setDescription("Updated Description");
@@ -380,7 +788,8 @@ class ProductServiceTest {
                 doNothing().when(validateMethods).validateObjectId(productId);
                 when(userClient.getUserByEmail("john.doe@example.org")).thenReturn(userDTO);
                 when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
-                when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+                when(productRepository.updateFields(eq(productId), eq("Updated Product"), eq("Updated Description"),
+                                eq(75.00), eq(8))).thenReturn(true);
                 when(userClient.getSellerNameById(userId)).thenReturn("John Doe");
                 when(mediaClient.getMediasByProductId(productId)).thenReturn(new ArrayList<>());
 
@@ -392,7 +801,8 @@ class ProductServiceTest {
                 verify(validateMethods, times(2)).validateObjectId(productId); // Appelé par updateProduct et getProductById
                 verify(userClient).getUserByEmail("john.doe@example.org");
                 verify(productRepository, times(2)).findById(productId); // Appelé par updateProduct et getProductById
-                verify(productRepository).save(any(Product.class));
+                // Mise à jour ciblée : le document lu n'est jamais réécrit (images, vendeur intacts)
+                verify(productRepository, never()).save(any(Product.class));
                 assertEquals(productId, result.getId());
                 assertEquals("Updated Product", result.getName());
         }
@@ -635,8 +1045,8 @@ class ProductServiceTest {
 
                 when(userClient.getUserByEmail("john.doe@example.org")).thenReturn(userDTO);
                 when(productRepository.findByUserId(userId)).thenReturn(products);
-                when(userClient.getSellerNameById(userId)).thenReturn("John Doe");
-                when(mediaClient.getMediasByProductId(anyString())).thenReturn(new ArrayList<>());
+                when(userClient.getSellerNamesByIds(anyCollection())).thenReturn(Map.of(userId, "John Doe"));
+                when(mediaClient.getMediasByProductIds(anyCollection())).thenReturn(new HashMap<>());
 
                 // Act
                 List<ProductDTO> result = productService.getProductsByUserId("john.doe@example.org", "ROLE_SELLER");
@@ -0,0 +1,149 @@
+package com.example.buy01.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.example.buy01.product.dto.MediaDTO;
+import com.example.buy01.product.dto.ProductDTO;
+import com.example.buy01.product.exception.ResourceNotFoundException;
+import com.example.buy01.product.model.Product;
+import com.example.buy01.product.model.ProductImage;
+import com.example.buy01.product.repository.ReactiveProductRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(classes = { ReactiveProductService.class })
+@ExtendWith(SpringExtension.class)
+class ReactiveProductServiceTest {
+
+        @MockitoBean
+        private ReactiveProductRepository reactiveProductRepository;
+
+        @MockitoBean
+        private ReactiveUserClient reactiveUserClient;
+
+        @MockitoBean
+        private ReactiveMediaClient reactiveMediaClient;
+
+        @MockitoBean
+        private ValidateMethods validateMethods;
+
+        @Autowired
+        private ReactiveProductService reactiveProductService;
+
+        /**
+         * Test {@link ReactiveProductService#getAllProducts()}.
+         *
+         * <ul>
+         * <li>Given one projected product and one product without projection.
+         * <li>Then only the latter is enriched and its projection saved.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getAllProducts; given mixed products; then enrich only unprojected ones")
+        void testGetAllProducts() {
+                // Arrange
+                Product projected = new Product();
+                projected.setId("product1");
+                projected.setUserId("user1");
+                projected.setSellerName("John Doe");
+                projected.setImages(List.of(new ProductImage("media1", "http://example.com/1.jpg")));
+
+                Product legacy = new Product();
+                legacy.setId("product2");
+                legacy.setUserId("user2");
+
+                MediaDTO media = new MediaDTO();
+                media.setId("media2");
+                media.setImagePath("http://example.com/2.jpg");
+
+                when(reactiveProductRepository.findAll()).thenReturn(Flux.just(projected, legacy));
+                when(reactiveUserClient.getSellerNamesByIds(anyCollection())).thenReturn(Mono.just(Map.of("user2", "Jane Doe")));
+                when(reactiveMediaClient.getMediasByProductIds(anyCollection()))
+                                .thenReturn(Mono.just(Map.of("product2", List.of(media))));
+                when(reactiveProductRepository.saveProjection(anyString(), any(), anyString(), anyList())).thenReturn(Mono.empty());
+
+                // Act
+                List<ProductDTO> result = reactiveProductService.getAllProducts().collectList().block();
+
+                // Assert
+                assertEquals(2, result.size());
+                assertEquals("John Doe", result.get(0).getSellerName());
+                assertEquals("Jane Doe", result.get(1).getSellerName());
+                assertEquals("media2", result.get(1).getImageUrls().get(0).getId());
+                verify(reactiveProductRepository).saveProjection(eq("product2"), any(), eq("Jane Doe"), anyList());
+        }
+
+        /**
+         * Test {@link ReactiveProductService#getProductById(String)}.
+         *
+         * <ul>
+         * <li>Given media-service unavailable.
+         * <li>Then return partial data without saving the projection.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductById; given media-service unavailable; then return partial product")
+        void testGetProductById_givenMediaServiceUnavailable_thenReturnPartialProduct() {
+                // Arrange
+                Product product = new Product();
+                product.setId("product1");
+                product.setUserId("user1");
+
+                doNothing().when(validateMethods).validateObjectId("product1");
+                when(reactiveProductRepository.findById("product1")).thenReturn(Mono.just(product));
+                when(reactiveUserClient.getSellerNamesByIds(anyCollection())).thenReturn(Mono.just(Map.of("user1", "John Doe")));
+                when(reactiveMediaClient.getMediasByProductIds(anyCollection())).thenReturn(Mono.empty());
+
+                // Act
+                ProductDTO result = reactiveProductService.getProductById("product1").block();
+
+                // Assert
+                assertEquals("John Doe", result.getSellerName());
+                assertEquals(0, result.getImageUrls().size());
+                assertFalse(result.isImagesResolved());
+                verify(reactiveProductRepository, never()).saveProjection(anyString(), any(), any(), anyList());
+        }
+
+        /**
+         * Test {@link ReactiveProductService#getProductById(String)}.
+         *
+         * <ul>
+         * <li>Given product not found.
+         * <li>Then throw {@link ResourceNotFoundException}.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getProductById; given product not found; then throw ResourceNotFoundException")
+        void testGetProductById_givenProductNotFound_thenThrowResourceNotFoundException() {
+                // Arrange
+                doNothing().when(validateMethods).validateObjectId("nonexistent");
+                when(reactiveProductRepository.findById("nonexistent")).thenReturn(Mono.empty());
+
+                // Act and Assert
+                assertThrows(ResourceNotFoundException.class,
+                                () -> reactiveProductService.getProductById("nonexistent").block());
+        }
+}
@@ -0,0 +1,184 @@
+package com.example.buy01.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.buy01.product.event.KafkaUserCacheConsumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(classes = { UserClient.class, SellerNameCache.class, KafkaUserCacheConsumer.class,
+                SimpleMeterRegistry.class }, properties = { "internal.token=test-token" })
+@ExtendWith(SpringExtension.class)
+class UserClientTest {
+
+        private static final String NAME_URL = "http://user-service/api/users/internal/name/";
+        private static final String NAMES_URL = "http://user-service/api/users/internal/names";
+
+        @MockitoBean
+        private RestTemplate restTemplate;
+
+        @Autowired
+        private UserClient userClient;
+
+        @Autowired
+        private SellerNameCache sellerNameCache;
+
+        @Autowired
+        private KafkaUserCacheConsumer kafkaUserCacheConsumer;
+
+        private void givenSellerName(String userId, String name) {
+                when(restTemplate.exchange(eq(NAME_URL + userId), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(String.class))).thenReturn(ResponseEntity.ok(name));
+        }
+
+        private void verifyNameCalls(String userId, int times) {
+                verify(restTemplate, times(times)).exchange(eq(NAME_URL + userId), eq(HttpMethod.GET),
+                                any(HttpEntity.class), eq(String.class));
+        }
+
+        /**
+         * Test {@link UserClient#getSellerNameById(String)}.
+         *
+         * <ul>
+         * <li>Given a seller name already resolved once.
+         * <li>Then serve it from the cache without calling user-service again.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getSellerNameById; given cached name; then no HTTP call")
+        void testGetSellerNameById_givenCachedName_thenNoHttpCall() {
+                // Arrange
+                givenSellerName("seller1", "John Doe");
+
+                // Act
+                String first = userClient.getSellerNameById("seller1");
+                String second = userClient.getSellerNameById("seller1");
+
+                // Assert
+                assertEquals("John Doe", first);
+                assertEquals("John Doe", second);
+                verifyNameCalls("seller1", 1);
+        }
+
+        /**
+         * Test {@link UserClient#getSellerNamesByIds(java.util.Collection)}.
+         *
+         * <ul>
+         * <li>Given one seller already cached.
+         * <li>Then only the missing sellers are sent to /internal/names.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getSellerNamesByIds; given partial cache; then request only the misses")
+        @SuppressWarnings("unchecked")
+        void testGetSellerNamesByIds_givenPartialCache_thenRequestOnlyMisses() {
+                // Arrange
+                sellerNameCache.put("cached", "Cached Seller");
+                ArgumentCaptor<HttpEntity<List<String>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+                when(restTemplate.exchange(eq(NAMES_URL), eq(HttpMethod.POST), request.capture(),
+                                any(ParameterizedTypeReference.class)))
+                                .thenReturn(ResponseEntity.ok(Map.of("missA", "Seller A", "missB", "Seller B")));
+
+                // Act
+                Map<String, String> names = userClient.getSellerNamesByIds(List.of("cached", "missA", "missB", "missA"));
+
+                // Assert
+                assertEquals(List.of("missA", "missB"), request.getValue().getBody());
+                assertEquals(Map.of("cached", "Cached Seller", "missA", "Seller A", "missB", "Seller B"), names);
+                assertEquals("Seller A", sellerNameCache.get("missA"));
+        }
+
+        /**
+         * Test {@link UserClient#getSellerNamesByIds(java.util.Collection)}.
+         *
+         * <ul>
+         * <li>Given every seller cached.
+         * <li>Then user-service is not called.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test getSellerNamesByIds; given all cached; then no HTTP call")
+        void testGetSellerNamesByIds_givenAllCached_thenNoHttpCall() {
+                // Arrange
+                sellerNameCache.put("sellerA", "Seller A");
+                sellerNameCache.put("sellerB", "Seller B");
+
+                // Act
+                Map<String, String> names = userClient.getSellerNamesByIds(List.of("sellerA", "sellerB"));
+
+                // Assert
+                assertEquals(Map.of("sellerA", "Seller A", "sellerB", "Seller B"), names);
+                verify(restTemplate, never()).exchange(eq(NAMES_URL), eq(HttpMethod.POST), any(HttpEntity.class),
+                                any(ParameterizedTypeReference.class));
+        }
+
+        /**
+         * Test {@link KafkaUserCacheConsumer#evictOnUserUpdated(String)}.
+         *
+         * <ul>
+         * <li>Given a cached seller name and a user-updated-topic event.
+         * <li>Then the entry is evicted and the next lookup calls user-service.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test evictOnUserUpdated; given cached name; then next lookup calls user-service")
+        void testEvictOnUserUpdated_givenCachedName_thenNextLookupCallsUserService() {
+                // Arrange
+                givenSellerName("seller2", "Old Name");
+                userClient.getSellerNameById("seller2");
+                givenSellerName("seller2", "New Name");
+
+                // Act
+                kafkaUserCacheConsumer.evictOnUserUpdated("seller2");
+
+                // Assert
+                assertNull(sellerNameCache.get("seller2"));
+                assertEquals("New Name", userClient.getSellerNameById("seller2"));
+                verifyNameCalls("seller2", 2);
+        }
+
+        /**
+         * Test {@link KafkaUserCacheConsumer#evictOnUserDeleted(String)}.
+         *
+         * <ul>
+         * <li>Given a cached seller name and a user-deleted-topic event.
+         * <li>Then the entry is evicted.
+         * </ul>
+         */
+        @Test
+        @DisplayName("Test evictOnUserDeleted; given cached name; then entry evicted")
+        void testEvictOnUserDeleted_givenCachedName_thenEntryEvicted() {
+                // Arrange
+                sellerNameCache.put("seller3", "Gone Seller");
+
+                // Act
+                kafkaUserCacheConsumer.evictOnUserDeleted("seller3");
+
+                // Assert
+                assertNull(sellerNameCache.get("seller3"));
+        }
+}
@@ -13,6 +13,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class AdminInitializer implements CommandLineRunner {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(AdminInitializer.class);
+
 
     @Autowired
     private UserRepository userRepository;
@@ -28,7 +30,7 @@ public class AdminInitializer implements CommandLineRunner {
             admin.setPassword(passwordEncoder.encode("test123"));
             admin.setRole(UserRole.ADMIN);
             userRepository.save(admin);
-            System.out.println("✅ Admin user created");
+            log.info("Compte administrateur créé");
         }
     }
 }
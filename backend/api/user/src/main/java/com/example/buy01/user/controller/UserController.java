@@ -2,6 +2,7 @@ package com.example.buy01.user.controller;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -42,6 +44,8 @@ import org.springframework.http.MediaType;
 // ADMIN ou SELLER
 public class UserController {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserService userService;
 
@@ -156,7 +160,7 @@ public class UserController {
     @GetMapping("/internal/email/{email}")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email,
             @RequestHeader("X-INTERNAL-TOKEN") String token) {
-        System.out.println("🔍 Appel de l’API interne pour l'email : " + email);
+        log.debug("Appel de l'API interne de recherche par email");
         if (!token.equals(internalToken)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
         }
@@ -186,4 +190,13 @@ public class UserController {
         return ResponseEntity.ok(user.getName());
     }
 
+    @PostMapping("/internal/names")
+    public ResponseEntity<Map<String, String>> getSellerNamesByIds(@RequestBody List<String> userIds,
+            @RequestHeader("X-INTERNAL-TOKEN") String token) {
+        if (!token.equals(internalToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(userService.getNamesByIds(userIds));
+    }
+
 }
\ No newline at end of file
@@ -20,4 +20,11 @@ public class KafkaUserProducer {
 
         log.info("Sending user deleted event for userId: {}", userId);
     }
+
+    public void sendUserUpdatedEvent(String userId, String name) {
+        // Clé = ID utilisateur, valeur = nom : product-service met à jour le nom du vendeur de ses produits
+        kafkaTemplateDeleted.send("user-updated-topic", userId, name);
+
+        log.info("Sending user updated event for userId: {}", userId);
+    }
 }
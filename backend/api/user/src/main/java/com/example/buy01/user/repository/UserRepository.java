@@ -3,7 +3,11 @@ package com.example.buy01.user.repository;
 import com.example.buy01.user.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserRepository extends MongoRepository<User, String> {
     User findByEmail(String email);
     boolean existsByEmail(String email);
+    List<User> findByIdIn(Collection<String> ids);
 }
@@ -1,5 +1,6 @@
 package com.example.buy01.user.service;
 
+import org.bson.types.ObjectId;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,12 +21,18 @@ import com.example.buy01.user.utils.ValidateMethods;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class UserService {
 
+    // Nombre maximal d'IDs acceptés par une requête groupée interne
+    public static final int MAX_BULK_IDS = 5000;
+
     @Autowired
     private ValidateMethods validateMethods;
 
@@ -114,6 +121,28 @@ public class UserService {
         return user;
     }
 
+    // Récupération groupée des noms (requête $in unique)
+    // Les IDs inconnus ou invalides sont simplement absents de la map retournée
+    public Map<String, String> getNamesByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Maximum " + MAX_BULK_IDS + " IDs par requête");
+        }
+
+        List<String> validIds = ids.stream()
+                .filter(ObjectId::isValid)
+                .distinct()
+                .toList();
+
+        Map<String, String> names = new HashMap<>();
+        for (User user : userRepository.findByIdIn(validIds)) {
+            names.put(user.getId(), user.getName());
+        }
+        return names;
+    }
+
     // Mise à jour d'un utilisateur
     // Vérification de l'existence de l'utilisateur
     // Vérification de l'ID
@@ -131,7 +160,11 @@ public class UserService {
         }
 
         ValidateMethods.validateUser(user);
-        return toDTO(userRepository.save(user));
+        User saved = userRepository.save(user);
+
+        // Envoi de l'événement de mise à jour à Kafka pour la projection des produits
+        kafkaUserProducer.sendUserUpdatedEvent(saved.getId(), saved.getName());
+        return toDTO(saved);
     }
 
     // Vérification de l'ID
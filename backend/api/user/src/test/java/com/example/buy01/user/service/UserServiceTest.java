@@ -31,6 +31,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
@@ -1385,4 +1386,60 @@ class UserServiceTest {
         verify(validateMethods).validateObjectId("42");
         verify(userRepository).existsById("42");
     }
+
+    /**
+     * Test {@link UserService#getNamesByIds(java.util.Collection)}.
+     *
+     * <ul>
+     *   <li>Given valid and invalid IDs.
+     *   <li>Then only valid IDs reach the repository and names are keyed by ID.
+     * </ul>
+     */
+    @Test
+    @DisplayName("Test getNamesByIds(Collection); then return names keyed by user ID")
+    void testGetNamesByIds() {
+        // Arrange
+        String id1 = "64b7f0c2a1b2c3d4e5f60718";
+        String id2 = "64b7f0c2a1b2c3d4e5f60719";
+
+        User user1 = new User();
+        user1.setId(id1);
+        user1.setName("Seller 1");
+
+        User user2 = new User();
+        user2.setId(id2);
+        user2.setName("Seller 2");
+
+        when(userRepository.findByIdIn(List.of(id1, id2))).thenReturn(List.of(user1, user2));
+
+        // Act
+        Map<String, String> result = userService.getNamesByIds(List.of(id1, id2, id1, "not-an-id"));
+
+        // Assert
+        verify(userRepository).findByIdIn(List.of(id1, id2));
+        assertEquals(2, result.size());
+        assertEquals("Seller 1", result.get(id1));
+        assertEquals("Seller 2", result.get(id2));
+    }
+
+    /**
+     * Test {@link UserService#getNamesByIds(java.util.Collection)}.
+     *
+     * <ul>
+     *   <li>Given more IDs than {@link UserService#MAX_BULK_IDS}.
+     *   <li>Then throw {@link IllegalArgumentException}.
+     * </ul>
+     */
+    @Test
+    @DisplayName("Test getNamesByIds(Collection); given too many IDs; then throw IllegalArgumentException")
+    void testGetNamesByIds_givenTooManyIds_thenThrowIllegalArgumentException() {
+        // Arrange
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= UserService.MAX_BULK_IDS; i++) {
+            ids.add(String.valueOf(i));
+        }
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.getNamesByIds(ids));
+    }
 }